@@ -1,13 +1,25 @@
 package de.b3ncloud.itemhunter;
 
+import de.b3ncloud.itemhunter.catalog.CatalogCompiler;
+import de.b3ncloud.itemhunter.catalog.TargetCatalog;
 import de.b3ncloud.itemhunter.commands.ItemHuntCommand;
 import de.b3ncloud.itemhunter.gui.ChallengeGUI;
+import de.b3ncloud.itemhunter.gui.DisplayCache;
 import de.b3ncloud.itemhunter.gui.ItemsGUI;
 import de.b3ncloud.itemhunter.listeners.AchievementListener;
 import de.b3ncloud.itemhunter.listeners.ItemPickupListener;
 import de.b3ncloud.itemhunter.listeners.MobKillListener;
 import de.b3ncloud.itemhunter.listeners.PlayerConnectionListener;
 import de.b3ncloud.itemhunter.managers.*;
+import de.b3ncloud.itemhunter.persistence.JournalReplayer;
+import de.b3ncloud.itemhunter.persistence.PersistenceService;
+import de.b3ncloud.itemhunter.persistence.ProgressJournal;
+import de.b3ncloud.itemhunter.persistence.ProgressSnapshot;
+import de.b3ncloud.itemhunter.progress.PlayerRegistry;
+import de.b3ncloud.itemhunter.progress.Timeline;
+import de.b3ncloud.itemhunter.perf.ServerProbe;
+import de.b3ncloud.itemhunter.perf.TickSampler;
+import de.b3ncloud.itemhunter.scheduler.SchedulerFacade;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Sound;
@@ -17,12 +29,6 @@ import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import net.md_5.bungee.api.ChatMessageType;
-import net.md_5.bungee.api.chat.TextComponent;
-
-import java.lang.reflect.Method;
-import java.util.concurrent.TimeUnit;
-
 /**
  * ItemHunter - Ultimate Challenge Plugin
  * 
@@ -38,14 +44,38 @@ public class ItemHunter extends JavaPlugin {
 
     private static ItemHunter instance;
     
+    // Ab so vielen Records im aktuellen Segment wird in die Snapshots kompaktiert
+    private static final int JOURNAL_COMPACT_THRESHOLD = 4096;
+    
+    // Ziel-Katalog (gecacht pro Server-Version + Config)
+    private CatalogCompiler catalogCompiler;
+    private TargetCatalog catalog;
+    
+    // Write-Ahead-Journal (jeder Fund sofort auf der Platte)
+    private ProgressJournal journal;
+    // Snapshots im Hintergrund schreiben
+    private PersistenceService persistence;
+    
+    // Spieler-UUIDs → kompakte IDs für die Manager
+    private PlayerRegistry playerRegistry;
+    
+    // Split-Zeiten aller erledigten Ziele
+    private Timeline timeline;
+    
     // Manager
     private ItemManager itemManager;
     private MobManager mobManager;
     private AchievementManager achievementManager;
     private TimerManager timerManager;
     private TablistManager tablistManager;
+    private AnnouncementManager announcementManager;
+    private ProgressApplier progressApplier;
+    private ProgressModel progressModel;
+    private FrameRenderer frameRenderer;
+    private InventoryScanner inventoryScanner;
     
     // GUI
+    private DisplayCache displayCache;
     private ItemsGUI itemsGUI;
     private ChallengeGUI challengeGUI;
     
@@ -58,9 +88,12 @@ public class ItemHunter extends JavaPlugin {
     
     // Folia-Support
     private boolean isFolia = false;
-    private Object globalRegionScheduler;
-    private Method foliaRunAtFixedRate;
-    private Method foliaRunDelayed;
+    private SchedulerFacade scheduler;
+    
+    // TPS/MSPT/Ping-Quellen (einmal beim Start geprüft)
+    private ServerProbe serverProbe;
+    // Eigene Tick-Messung (MSPT-Perzentile)
+    private TickSampler tickSampler;
     
     @Override
     public void onEnable() {
@@ -73,14 +106,30 @@ public class ItemHunter extends JavaPlugin {
         saveDefaultConfig();
         loadConfiguration();
         
+        // Ziel-Katalog laden (Cache-Datei oder neu kompilieren)
+        catalogCompiler = new CatalogCompiler(this);
+        catalog = catalogCompiler.load();
+        journal = new ProgressJournal(this, catalog.getCacheKey());
+        persistence = new PersistenceService(this, journal);
+        playerRegistry = new PlayerRegistry();
+        timeline = new Timeline();
+        serverProbe = new ServerProbe(getLogger());
+        tickSampler = new TickSampler(this);
+        
         // Manager initialisieren
+        progressModel = new ProgressModel(this);
         itemManager = new ItemManager(this);
         mobManager = new MobManager(this);
         achievementManager = new AchievementManager(this);
         timerManager = new TimerManager(this);
         tablistManager = new TablistManager(this);
+        announcementManager = new AnnouncementManager(this);
+        progressApplier = new ProgressApplier(this);
+        inventoryScanner = new InventoryScanner(this);
+        frameRenderer = new FrameRenderer(this);
         
         // GUI initialisieren
+        displayCache = new DisplayCache(this);
         itemsGUI = new ItemsGUI(this);
         challengeGUI = new ChallengeGUI(this);
         
@@ -108,11 +157,28 @@ public class ItemHunter extends JavaPlugin {
         // Tasks starten
         startTasks();
         
-        // Gespeicherten Zustand laden
-        timerManager.loadState();
-        itemManager.loadProgress();
-        mobManager.loadProgress();
-        achievementManager.loadProgress();
+        // Gespeicherten Zustand laden (progress.dat, sonst Migration aus den alten YAML-Dateien)
+        ProgressSnapshot saved = persistence.load();
+        if (saved != null) {
+            saved.apply(this);
+        } else if (persistence.hasLegacyFiles()) {
+            getLogger().info("Migriere Fortschritt aus YAML nach progress.dat...");
+            timerManager.loadLegacyState();
+            itemManager.loadLegacyProgress();
+            mobManager.loadLegacyProgress();
+            achievementManager.loadLegacyProgress();
+        }
+        
+        // Journal seit dem letzten Snapshot einspielen, danach neu falten
+        journal.replay(new JournalReplayer(this));
+        timerManager.recoverCheckpoint();
+        timerManager.finishRestore();
+        if (timerManager.isActive()) {
+            // Reload mit laufender Challenge: Spieler sind schon online
+            frameRenderer.addAllBossBarViewers();
+        }
+        journal.open();
+        compactJournal();
         
         getLogger().info("═══════════════════════════════════════════════");
         getLogger().info("  🎯 ItemHunter v" + getDescription().getVersion() + " aktiviert!");
@@ -125,11 +191,21 @@ public class ItemHunter extends JavaPlugin {
     
     @Override
     public void onDisable() {
-        // Zustand speichern
-        if (timerManager != null) timerManager.saveState();
-        if (itemManager != null) itemManager.saveProgress();
-        if (mobManager != null) mobManager.saveProgress();
-        if (achievementManager != null) achievementManager.saveProgress();
+        // Zustand speichern (Journal wird in die Snapshots gefaltet) und auf den Schreib-Thread warten
+        if (persistence != null && itemManager != null) {
+            // Noch eingereihte Funde übernehmen, sonst fehlen sie in Journal und progress.dat
+            if (progressApplier != null) {
+                progressApplier.drainNow();
+            }
+            compactJournal();
+            persistence.shutdown();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        if (timerManager != null) {
+            timerManager.closeCheckpoint();
+        }
         
         // BossBar entfernen
         if (progressBar != null) {
@@ -147,148 +223,87 @@ public class ItemHunter extends JavaPlugin {
     }
     
     /**
-     * Erkennt ob wir auf Folia laufen und initialisiert die Reflection-Methoden
+     * Erkennt ob wir auf Folia laufen und bindet den passenden Scheduler
      */
     private void detectFolia() {
         try {
             Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
             isFolia = true;
-            
-            Method getGlobalRegionScheduler = Bukkit.class.getMethod("getGlobalRegionScheduler");
-            globalRegionScheduler = getGlobalRegionScheduler.invoke(null);
-            
-            Class<?> schedulerClass = globalRegionScheduler.getClass();
-            foliaRunAtFixedRate = schedulerClass.getMethod("runAtFixedRate", 
-                    org.bukkit.plugin.Plugin.class, java.util.function.Consumer.class, long.class, long.class, TimeUnit.class);
-            foliaRunDelayed = schedulerClass.getMethod("runDelayed",
-                    org.bukkit.plugin.Plugin.class, java.util.function.Consumer.class, long.class, TimeUnit.class);
-            
-            getLogger().info("Folia erkannt - verwende RegionScheduler");
+            getLogger().info("Folia erkannt - verwende Region- und Entity-Scheduler");
         } catch (ClassNotFoundException e) {
             isFolia = false;
             getLogger().info("Standard Bukkit/Paper erkannt");
-        } catch (Exception e) {
-            isFolia = false;
-            getLogger().warning("Folia-Erkennung fehlgeschlagen: " + e.getMessage());
         }
+        
+        scheduler = SchedulerFacade.create(this, isFolia);
     }
     
     private void startTasks() {
-        // Timer & ActionBar Update (jede Sekunde)
+        // ActionBar Update (jede Sekunde) - die Uhr selbst läuft über System.nanoTime()
         Runnable timerTask = () -> {
             if (!timerManager.isRunning()) return;
             
-            timerManager.tick();
+            // Stand jede Sekunde in die timer.ckpt, Timer-Checkpoint jede Minute (ein Record)
+            timerManager.saveCheckpoint();
+            timerManager.checkpointIfDue();
             
-            // ActionBar mit Gesamtfortschritt
+            // ActionBar mit Gesamtfortschritt (nur nach Änderungen neu gebaut)
             if (showTimerActionbar) {
-                int totalFound = itemManager.getFoundCount() + mobManager.getKilledCount() + achievementManager.getCompletedCount();
-                int totalRequired = itemManager.getTotalItems() + mobManager.getTotalMobs() + achievementManager.getTotalAdvancements();
-                double progress = totalRequired > 0 ? (double) totalFound / totalRequired * 100 : 0;
-                
-                String timerText = ChatColor.GOLD + "⏱ " + ChatColor.WHITE + timerManager.getFormattedTime() + 
-                        ChatColor.DARK_GRAY + " │ " + 
-                        ChatColor.GREEN + "📦" + itemManager.getFoundCount() + 
-                        ChatColor.DARK_GRAY + " │ " +
-                        ChatColor.RED + "☠" + mobManager.getKilledCount() + 
-                        ChatColor.DARK_GRAY + " │ " +
-                        ChatColor.LIGHT_PURPLE + "★" + achievementManager.getCompletedCount() +
-                        ChatColor.DARK_GRAY + " │ " +
-                        ChatColor.YELLOW + String.format("%.1f", progress) + "%";
-                
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(timerText));
-                }
+                frameRenderer.renderActionBar();
             }
             
-            // Tablist aktualisieren
-            if (showTablist) {
-                tablistManager.updateTablist();
-            }
-            
-            updateBossBar();
+            frameRenderer.renderBossBar();
         };
         
+        // Funde sind bereits im Journal - nur kompaktieren wenn sich genug angesammelt hat
         Runnable saveTask = () -> {
-            timerManager.saveState();
-            itemManager.saveProgress();
-            mobManager.saveProgress();
-            achievementManager.saveProgress();
+            if (journal.getSegmentRecords() >= JOURNAL_COMPACT_THRESHOLD) {
+                compactJournal();
+            }
         };
         
-        if (isFolia) {
-            try {
-                java.util.function.Consumer<Object> timerConsumer = (task) -> timerTask.run();
-                java.util.function.Consumer<Object> saveConsumer = (task) -> saveTask.run();
-                
-                foliaRunAtFixedRate.invoke(globalRegionScheduler, this, timerConsumer, 1L, 1L, TimeUnit.SECONDS);
-                foliaRunAtFixedRate.invoke(globalRegionScheduler, this, saveConsumer, 5L * 60, 5L * 60, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                getLogger().severe("Folia-Scheduler fehlgeschlagen: " + e.getMessage());
-            }
-        } else {
-            Bukkit.getScheduler().runTaskTimer(this, timerTask, 20L, 20L);
-            Bukkit.getScheduler().runTaskTimer(this, saveTask, 6000L, 6000L);
+        scheduler.runGlobalTimer(timerTask, 20L, 20L);
+        scheduler.runGlobalTimer(saveTask, 6000L, 6000L);
+        
+        // Tick-Zeiten messen
+        tickSampler.start();
+        
+        // Tablist aktualisieren (Spieler über die Ticks der Sekunde verteilt)
+        if (showTablist) {
+            tablistManager.start();
         }
+        
+        // Fortschritts-Events der Listener einmal pro Tick übernehmen
+        progressApplier.start();
+        
+        // Inventar-Abgleich für Item-Wege ohne Listener
+        inventoryScanner.start();
     }
     
     /**
-     * Führt eine Aufgabe verzögert aus (Folia-kompatibel)
+     * Faltet das Journal in die Snapshots: neues Segment beginnen, Snapshot kopieren,
+     * im Hintergrund schreiben und danach alte Segmente löschen.
+     * Stürzt der Server dazwischen ab, werden beim Start einfach beide eingespielt.
      */
-    public void runTaskLater(Runnable task, long delayTicks) {
-        if (isFolia) {
-            try {
-                java.util.function.Consumer<Object> consumer = (t) -> task.run();
-                long delayMs = delayTicks * 50;
-                foliaRunDelayed.invoke(globalRegionScheduler, this, consumer, delayMs, TimeUnit.MILLISECONDS);
-            } catch (Exception e) {
-                getLogger().severe("Folia runTaskLater fehlgeschlagen: " + e.getMessage());
-            }
-        } else {
-            Bukkit.getScheduler().runTaskLater(this, task, delayTicks);
-        }
+    public void compactJournal() {
+        int keepFrom = journal.rotate();
+        persistence.save(ProgressSnapshot.capture(this), keepFrom);
     }
     
     public boolean isFolia() {
         return isFolia;
     }
     
-    public void updateBossBar() {
-        if (!showProgressBossbar || !timerManager.isRunning()) {
-            progressBar.setVisible(false);
-            return;
-        }
-        
-        // Gesamtfortschritt
-        int totalFound = itemManager.getFoundCount() + mobManager.getKilledCount() + achievementManager.getCompletedCount();
-        int totalRequired = itemManager.getTotalItems() + mobManager.getTotalMobs() + achievementManager.getTotalAdvancements();
-        double progress = totalRequired > 0 ? (double) totalFound / totalRequired : 0;
-        
-        progressBar.setTitle(ChatColor.GOLD + "🎯 Challenge: " + 
-                ChatColor.GREEN + "📦" + itemManager.getFoundCount() + "/" + itemManager.getTotalItems() + " " +
-                ChatColor.RED + "☠" + mobManager.getKilledCount() + "/" + mobManager.getTotalMobs() + " " +
-                ChatColor.LIGHT_PURPLE + "★" + achievementManager.getCompletedCount() + "/" + achievementManager.getTotalAdvancements() + " " +
-                ChatColor.YELLOW + "(" + String.format("%.1f", progress * 100) + "%)");
-        progressBar.setProgress(Math.min(1.0, progress));
-        
-        // Farbe je nach Fortschritt
-        if (progress >= 0.75) {
-            progressBar.setColor(BarColor.GREEN);
-        } else if (progress >= 0.5) {
-            progressBar.setColor(BarColor.YELLOW);
-        } else if (progress >= 0.25) {
-            progressBar.setColor(BarColor.PINK);
-        } else {
-            progressBar.setColor(BarColor.RED);
-        }
-        
-        progressBar.setVisible(true);
-        
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (!progressBar.getPlayers().contains(player)) {
-                progressBar.addPlayer(player);
-            }
-        }
+    public SchedulerFacade getSchedulerFacade() {
+        return scheduler;
+    }
+    
+    public ServerProbe getServerProbe() {
+        return serverProbe;
+    }
+    
+    public TickSampler getTickSampler() {
+        return tickSampler;
     }
     
     /**
@@ -307,10 +322,10 @@ public class ItemHunter extends JavaPlugin {
     }
     
     private void challengeComplete() {
-        String time = timerManager.getFormattedTime();
+        String time = timerManager.getPreciseTime();
         
         timerManager.stop();
-        progressBar.removeAll();
+        frameRenderer.clearBossBarViewers();
         
         Bukkit.broadcastMessage("");
         Bukkit.broadcastMessage(ChatColor.GOLD + "═══════════════════════════════════════════════════════");
@@ -325,13 +340,16 @@ public class ItemHunter extends JavaPlugin {
         Bukkit.broadcastMessage(ChatColor.GOLD + "═══════════════════════════════════════════════════════");
         Bukkit.broadcastMessage("");
         
+        // Sound und Titel auf dem Thread des Spielers (Folia)
         for (Player player : Bukkit.getOnlinePlayers()) {
-            player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
-            player.sendTitle(
-                    ChatColor.GREEN + "🎉 GESCHAFFT! 🎉",
-                    ChatColor.WHITE + "Alle Ziele in " + ChatColor.AQUA + time,
-                    10, 100, 20
-            );
+            scheduler.executeForEntity(player, () -> {
+                player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
+                player.sendTitle(
+                        ChatColor.GREEN + "🎉 GESCHAFFT! 🎉",
+                        ChatColor.WHITE + "Alle Ziele in " + ChatColor.AQUA + time,
+                        10, 100, 20
+                );
+            });
         }
     }
     
@@ -341,6 +359,34 @@ public class ItemHunter extends JavaPlugin {
         return instance;
     }
     
+    public TargetCatalog getCatalog() {
+        return catalog;
+    }
+    
+    /**
+     * Lädt den Ziel-Katalog neu (nur Datei-Lesen, solange Version und Config gleich sind)
+     */
+    public TargetCatalog reloadCatalog() {
+        catalog = catalogCompiler.load();
+        return catalog;
+    }
+    
+    public ProgressJournal getJournal() {
+        return journal;
+    }
+    
+    public PersistenceService getPersistence() {
+        return persistence;
+    }
+    
+    public PlayerRegistry getPlayerRegistry() {
+        return playerRegistry;
+    }
+    
+    public Timeline getTimeline() {
+        return timeline;
+    }
+    
     public ItemManager getItemManager() {
         return itemManager;
     }
@@ -361,6 +407,30 @@ public class ItemHunter extends JavaPlugin {
         return tablistManager;
     }
     
+    public AnnouncementManager getAnnouncementManager() {
+        return announcementManager;
+    }
+    
+    public ProgressApplier getProgressApplier() {
+        return progressApplier;
+    }
+    
+    public InventoryScanner getInventoryScanner() {
+        return inventoryScanner;
+    }
+    
+    public ProgressModel getProgressModel() {
+        return progressModel;
+    }
+    
+    public FrameRenderer getFrameRenderer() {
+        return frameRenderer;
+    }
+    
+    public DisplayCache getDisplayCache() {
+        return displayCache;
+    }
+    
     public ItemsGUI getItemsGUI() {
         return itemsGUI;
     }
@@ -373,6 +443,10 @@ public class ItemHunter extends JavaPlugin {
         return progressBar;
     }
     
+    public boolean isShowProgressBossbar() {
+        return showProgressBossbar;
+    }
+    
     public String getPrefix() {
         return prefix;
     }
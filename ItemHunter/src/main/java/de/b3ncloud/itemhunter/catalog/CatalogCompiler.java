@@ -0,0 +1,271 @@
+package de.b3ncloud.itemhunter.catalog;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.advancement.Advancement;
+import org.bukkit.entity.EntityType;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Kompiliert den Ziel-Katalog einmal pro Server-Version + Config
+ * und speichert ihn als kompakte Cache-Datei im Plugin-Ordner.
+ * Spätere Starts lesen nur noch die Datei statt alle Enums zu scannen.
+ */
+public class CatalogCompiler {
+
+    private static final int MAGIC = 0x49484354; // "IHCT"
+    private static final int FORMAT_VERSION = 1;
+    
+    private final ItemHunter plugin;
+    private final File cacheFile;
+    private final File rulesFile;
+    
+    // Kompilierte Item-Regeln (nur beim Neu-Kompilieren benötigt)
+    private ItemRuleSet itemRules;
+    
+    // Zuletzt geladener Katalog
+    private TargetCatalog current;
+    
+    public CatalogCompiler(ItemHunter plugin) {
+        this.plugin = plugin;
+        this.cacheFile = new File(plugin.getDataFolder(), "catalog.cache");
+        this.rulesFile = new File(plugin.getDataFolder(), "item-rules.yml");
+    }
+    
+    /**
+     * Liefert den Katalog für die aktuelle Server-Version und Config.
+     * Reihenfolge: Speicher → Cache-Datei → Neu kompilieren
+     */
+    public TargetCatalog load() {
+        if (!rulesFile.exists()) {
+            plugin.saveResource("item-rules.yml", false);
+        }
+        
+        List<String> excluded = plugin.getConfig().getStringList("excluded-items");
+        String key = computeCacheKey(excluded);
+        
+        if (current != null && current.getCacheKey().equals(key)) {
+            return current;
+        }
+        
+        TargetCatalog cached = readCache(key);
+        if (cached != null) {
+            plugin.getLogger().info("Ziel-Katalog aus Cache geladen (" + cached.getItems().size() + " Items, " +
+                    cached.getMobs().size() + " Mobs, " + cached.getAdvancements().size() + " Advancements)");
+            current = cached;
+            return current;
+        }
+        
+        itemRules = ItemRuleSet.load(plugin, rulesFile, excluded);
+        current = compile(key);
+        itemRules = null;
+        writeCache(current);
+        plugin.getLogger().info("Ziel-Katalog neu kompiliert (" + current.getItems().size() + " Items, " +
+                current.getMobs().size() + " Mobs, " + current.getAdvancements().size() + " Advancements)");
+        return current;
+    }
+    
+    /**
+     * Server-Version + Plugin-Version + Hash der Ausschlussliste und Regeldatei
+     */
+    private String computeCacheKey(List<String> excluded) {
+        List<String> normalized = new ArrayList<>();
+        for (String itemName : excluded) {
+            normalized.add(itemName.toUpperCase());
+        }
+        Collections.sort(normalized);
+        
+        return Bukkit.getVersion() + "|" + plugin.getDescription().getVersion() +
+                "|" + Integer.toHexString(normalized.hashCode()) + "|" + Long.toHexString(rulesChecksum());
+    }
+    
+    private long rulesChecksum() {
+        CRC32 crc = new CRC32();
+        try {
+            crc.update(Files.readAllBytes(rulesFile.toPath()));
+        } catch (IOException e) {
+            return 0L;
+        }
+        return crc.getValue();
+    }
+    
+    // ============ KOMPILIEREN ============
+    
+    private TargetCatalog compile(String key) {
+        List<Material> items = new ArrayList<>();
+        for (Material material : Material.values()) {
+            // Nur tatsächliche Items (keine Luft, keine Legacy, keine unobtainables)
+            if (isValidItem(material)) {
+                items.add(material);
+            }
+        }
+        
+        List<EntityType> mobs = new ArrayList<>();
+        for (EntityType type : EntityType.values()) {
+            if (isValidMob(type)) {
+                mobs.add(type);
+            }
+        }
+        
+        List<NamespacedKey> advancements = new ArrayList<>();
+        Iterator<Advancement> iterator = Bukkit.advancementIterator();
+        while (iterator.hasNext()) {
+            Advancement advancement = iterator.next();
+            if (isValidAdvancement(advancement)) {
+                advancements.add(advancement.getKey());
+            }
+        }
+        
+        return new TargetCatalog(key, items, mobs, advancements);
+    }
+    
+    // ============ FILTER ============
+    
+    private boolean isValidItem(Material material) {
+        // Keine Legacy Items
+        if (material.isLegacy()) return false;
+        
+        // Muss ein Item sein (nicht nur Block)
+        if (!material.isItem()) return false;
+        
+        // Keine Luft
+        if (material.isAir()) return false;
+        
+        // Namens- und Tag-Regeln aus item-rules.yml (inkl. excluded-items)
+        return !itemRules.isExcluded(material);
+    }
+    
+    private boolean isValidMob(EntityType type) {
+        // Muss ein lebendiges Wesen sein
+        if (!type.isAlive()) return false;
+        
+        // Muss spawnable sein
+        if (!type.isSpawnable()) return false;
+        
+        String name = type.name();
+        
+        // ============ SPIELER & MARKER ============
+        if (type == EntityType.PLAYER) return false;
+        if (name.equals("MARKER") || name.equals("INTERACTION")) return false;
+        
+        // ============ TECHNISCHE ENTITIES ============
+        if (name.equals("ARMOR_STAND")) return false;
+        if (name.equals("GIANT")) return false; // Nicht natürlich spawnbar
+        if (name.equals("ILLUSIONER")) return false; // Nicht natürlich spawnbar
+        if (name.equals("ZOMBIE_HORSE")) return false; // Nicht natürlich spawnbar
+        
+        // ============ NPC-ARTIGE ============
+        // Villager und Wandering Trader sind OK - man kann sie töten
+        
+        // ============ BOSS-MOBS ============
+        // Ender Dragon und Wither sind OK - gehören zur Challenge
+        
+        return true;
+    }
+    
+    private boolean isValidAdvancement(Advancement advancement) {
+        String key = advancement.getKey().toString();
+        
+        // Keine Root-Advancements (die "Tab"-Einträge)
+        if (key.endsWith("/root")) return false;
+        
+        // Keine Rezept-Advancements
+        if (key.contains("recipes/")) return false;
+        
+        // Keine technischen Advancements
+        if (key.startsWith("minecraft:technical/")) return false;
+        
+        // Muss einen Display haben (sichtbar im Advancement-Screen)
+        // Leider kann man das in der Bukkit API nicht direkt prüfen
+        // Wir filtern nach bekannten Kategorien
+        if (!key.startsWith("minecraft:story/") &&
+            !key.startsWith("minecraft:nether/") &&
+            !key.startsWith("minecraft:end/") &&
+            !key.startsWith("minecraft:adventure/") &&
+            !key.startsWith("minecraft:husbandry/")) {
+            return false;
+        }
+        
+        return true;
+    }
+    
+    // ============ CACHE-DATEI ============
+    
+    private TargetCatalog readCache(String key) {
+        if (!cacheFile.exists()) return null;
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return null;
+            if (!in.readUTF().equals(key)) return null;
+            
+            int itemCount = in.readInt();
+            List<Material> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                Material material = Material.getMaterial(in.readUTF());
+                if (material == null) return null;
+                items.add(material);
+            }
+            
+            int mobCount = in.readInt();
+            List<EntityType> mobs = new ArrayList<>(mobCount);
+            for (int i = 0; i < mobCount; i++) {
+                mobs.add(EntityType.valueOf(in.readUTF()));
+            }
+            
+            int advancementCount = in.readInt();
+            List<NamespacedKey> advancements = new ArrayList<>(advancementCount);
+            for (int i = 0; i < advancementCount; i++) {
+                NamespacedKey advancementKey = NamespacedKey.fromString(in.readUTF());
+                if (advancementKey == null) return null;
+                advancements.add(advancementKey);
+            }
+            
+            return new TargetCatalog(key, items, mobs, advancements);
+        } catch (IOException | IllegalArgumentException e) {
+            plugin.getLogger().warning("Katalog-Cache ungültig, wird neu erstellt: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private void writeCache(TargetCatalog catalog) {
+        plugin.getDataFolder().mkdirs();
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(catalog.getCacheKey());
+            
+            out.writeInt(catalog.getItems().size());
+            for (Material material : catalog.getItems()) {
+                out.writeUTF(material.name());
+            }
+            
+            out.writeInt(catalog.getMobs().size());
+            for (EntityType type : catalog.getMobs()) {
+                out.writeUTF(type.name());
+            }
+            
+            out.writeInt(catalog.getAdvancements().size());
+            for (NamespacedKey advancementKey : catalog.getAdvancements()) {
+                out.writeUTF(advancementKey.toString());
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Konnte Katalog-Cache nicht schreiben: " + e.getMessage());
+            return;
+        }
+        
+        try {
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Konnte Katalog-Cache nicht schreiben: " + e.getMessage());
+        }
+    }
+}
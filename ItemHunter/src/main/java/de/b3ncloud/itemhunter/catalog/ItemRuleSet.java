@@ -0,0 +1,111 @@
+package de.b3ncloud.itemhunter.catalog;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Kompilierte Item-Regeln aus item-rules.yml.
+ * Namensregeln landen in einem NameMatcher, Tag-Regeln als Bitmaps über Material.ordinal().
+ */
+public class ItemRuleSet {
+
+    private final NameMatcher matcher;
+    private final long[] excludedByTag;
+    private final long[] allowedByTag;
+    
+    private ItemRuleSet(NameMatcher matcher, long[] excludedByTag, long[] allowedByTag) {
+        this.matcher = matcher;
+        this.excludedByTag = excludedByTag;
+        this.allowedByTag = allowedByTag;
+    }
+    
+    /**
+     * Lädt und kompiliert die Regeldatei
+     * @param excludedItems zusätzliche exakte Ausschlüsse aus der Config
+     */
+    public static ItemRuleSet load(ItemHunter plugin, File rulesFile, List<String> excludedItems) {
+        YamlConfiguration rules = YamlConfiguration.loadConfiguration(rulesFile);
+        NameMatcher.Builder builder = NameMatcher.builder();
+        
+        int words = (Material.values().length + 63) >>> 6;
+        long[] excludedByTag = new long[words];
+        long[] allowedByTag = new long[words];
+        
+        addSection(plugin, builder, rules.getConfigurationSection("exclude"), NameMatcher.EXCLUDE, excludedByTag);
+        addSection(plugin, builder, rules.getConfigurationSection("allow"), NameMatcher.ALLOW, allowedByTag);
+        
+        // Config-Ausschlüsse als exakte Regeln im selben Automaten
+        for (String itemName : excludedItems) {
+            if (Material.getMaterial(itemName.toUpperCase()) == null) {
+                plugin.getLogger().warning("Unbekanntes Item in Ausschlussliste: " + itemName);
+                continue;
+            }
+            builder.add(itemName, NameMatcher.Mode.EXACT, NameMatcher.EXCLUDE);
+        }
+        
+        return new ItemRuleSet(builder.build(), excludedByTag, allowedByTag);
+    }
+    
+    private static void addSection(ItemHunter plugin, NameMatcher.Builder builder, ConfigurationSection section, int action, long[] tagBits) {
+        if (section == null) return;
+        
+        for (String name : section.getStringList("exact")) {
+            builder.add(name, NameMatcher.Mode.EXACT, action);
+        }
+        for (String prefix : section.getStringList("prefix")) {
+            builder.add(prefix, NameMatcher.Mode.PREFIX, action);
+        }
+        for (String suffix : section.getStringList("suffix")) {
+            builder.add(suffix, NameMatcher.Mode.SUFFIX, action);
+        }
+        for (String part : section.getStringList("contains")) {
+            builder.add(part, NameMatcher.Mode.CONTAINS, action);
+        }
+        
+        for (String tagName : section.getStringList("tags")) {
+            Tag<Material> tag = resolveTag(tagName);
+            if (tag == null) {
+                plugin.getLogger().warning("Unbekannter Tag in Item-Regeln: " + tagName);
+                continue;
+            }
+            for (Material material : tag.getValues()) {
+                tagBits[material.ordinal() >>> 6] |= 1L << material.ordinal();
+            }
+        }
+    }
+    
+    private static Tag<Material> resolveTag(String tagName) {
+        NamespacedKey key = NamespacedKey.fromString(tagName.toLowerCase());
+        if (key == null) return null;
+        
+        Tag<Material> tag = Bukkit.getTag(Tag.REGISTRY_ITEMS, key, Material.class);
+        if (tag == null) {
+            tag = Bukkit.getTag(Tag.REGISTRY_BLOCKS, key, Material.class);
+        }
+        return tag;
+    }
+    
+    /**
+     * Prüft ob ein Material durch die Regeln ausgeschlossen ist
+     */
+    public boolean isExcluded(Material material) {
+        int ordinal = material.ordinal();
+        long bit = 1L << ordinal;
+        int word = ordinal >>> 6;
+        
+        if ((allowedByTag[word] & bit) != 0) return false;
+        
+        int result = matcher.classify(material.name());
+        if ((result & NameMatcher.ALLOW) != 0) return false;
+        
+        return (result & NameMatcher.EXCLUDE) != 0 || (excludedByTag[word] & bit) != 0;
+    }
+}
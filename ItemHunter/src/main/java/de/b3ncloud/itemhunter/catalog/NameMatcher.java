@@ -0,0 +1,184 @@
+package de.b3ncloud.itemhunter.catalog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick-Automat über Enum-Namen (A-Z, 0-9, _).
+ * Exakte Namen, Präfixe, Suffixe und Teilstrings werden in einen Automaten
+ * kompiliert und in einem Durchlauf (linear in der Namenslänge) geprüft.
+ */
+public class NameMatcher {
+
+    public enum Mode {
+        EXACT,
+        PREFIX,
+        SUFFIX,
+        CONTAINS
+    }
+    
+    public static final int NONE = 0;
+    public static final int EXCLUDE = 1;
+    public static final int ALLOW = 2;
+    
+    // A-Z, 0-9, _, sonstige
+    private static final int ALPHABET = 38;
+    
+    // DFA: delta[state * ALPHABET + symbol]
+    private final int[] delta;
+    
+    // Treffer pro Zustand (inkl. Fail-Kette): Pattern-Indizes
+    private final int[][] outputs;
+    
+    private final int[] patternLength;
+    private final Mode[] patternMode;
+    private final int[] patternAction;
+    
+    private NameMatcher(int[] delta, int[][] outputs, int[] patternLength, Mode[] patternMode, int[] patternAction) {
+        this.delta = delta;
+        this.outputs = outputs;
+        this.patternLength = patternLength;
+        this.patternMode = patternMode;
+        this.patternAction = patternAction;
+    }
+    
+    /**
+     * Klassifiziert einen Namen
+     * @return Bitmaske aus EXCLUDE und ALLOW
+     */
+    public int classify(String name) {
+        int length = name.length();
+        int state = 0;
+        int result = NONE;
+        
+        for (int i = 0; i < length; i++) {
+            state = delta[state * ALPHABET + symbol(name.charAt(i))];
+            
+            for (int pattern : outputs[state]) {
+                int start = i - patternLength[pattern] + 1;
+                boolean matches;
+                switch (patternMode[pattern]) {
+                    case EXACT: matches = start == 0 && i == length - 1; break;
+                    case PREFIX: matches = start == 0; break;
+                    case SUFFIX: matches = i == length - 1; break;
+                    default: matches = true; break;
+                }
+                if (matches) {
+                    result |= patternAction[pattern];
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    private static int symbol(char c) {
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= '0' && c <= '9') return 26 + (c - '0');
+        if (c == '_') return 36;
+        return 37;
+    }
+    
+    // ============ BUILDER ============
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static class Builder {
+    
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Mode> modes = new ArrayList<>();
+        private final List<Integer> actions = new ArrayList<>();
+        
+        public Builder add(String pattern, Mode mode, int action) {
+            if (pattern == null || pattern.isEmpty()) return this;
+            patterns.add(pattern.toUpperCase());
+            modes.add(mode);
+            actions.add(action);
+            return this;
+        }
+        
+        public NameMatcher build() {
+            // Trie aufbauen
+            List<int[]> children = new ArrayList<>();
+            List<List<Integer>> nodeOutputs = new ArrayList<>();
+            children.add(newNode());
+            nodeOutputs.add(new ArrayList<>());
+            
+            for (int p = 0; p < patterns.size(); p++) {
+                String pattern = patterns.get(p);
+                int node = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    int sym = symbol(pattern.charAt(i));
+                    int child = children.get(node)[sym];
+                    if (child < 0) {
+                        child = children.size();
+                        children.get(node)[sym] = child;
+                        children.add(newNode());
+                        nodeOutputs.add(new ArrayList<>());
+                    }
+                    node = child;
+                }
+                nodeOutputs.get(node).add(p);
+            }
+            
+            // Fail-Links per BFS und vollständige Übergangstabelle
+            int nodes = children.size();
+            int[] delta = new int[nodes * ALPHABET];
+            int[] fail = new int[nodes];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            
+            for (int sym = 0; sym < ALPHABET; sym++) {
+                int child = children.get(0)[sym];
+                if (child < 0) {
+                    delta[sym] = 0;
+                } else {
+                    delta[sym] = child;
+                    fail[child] = 0;
+                    queue.add(child);
+                }
+            }
+            
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                nodeOutputs.get(node).addAll(nodeOutputs.get(fail[node]));
+                
+                for (int sym = 0; sym < ALPHABET; sym++) {
+                    int child = children.get(node)[sym];
+                    if (child < 0) {
+                        delta[node * ALPHABET + sym] = delta[fail[node] * ALPHABET + sym];
+                    } else {
+                        delta[node * ALPHABET + sym] = child;
+                        fail[child] = delta[fail[node] * ALPHABET + sym];
+                        queue.add(child);
+                    }
+                }
+            }
+            
+            int[][] outputs = new int[nodes][];
+            for (int n = 0; n < nodes; n++) {
+                outputs[n] = nodeOutputs.get(n).stream().mapToInt(Integer::intValue).distinct().toArray();
+            }
+            
+            int[] lengths = new int[patterns.size()];
+            Mode[] modeArray = new Mode[patterns.size()];
+            int[] actionArray = new int[patterns.size()];
+            for (int p = 0; p < patterns.size(); p++) {
+                lengths[p] = patterns.get(p).length();
+                modeArray[p] = modes.get(p);
+                actionArray[p] = actions.get(p);
+            }
+            
+            return new NameMatcher(delta, outputs, lengths, modeArray, actionArray);
+        }
+        
+        private static int[] newNode() {
+            int[] node = new int[ALPHABET];
+            Arrays.fill(node, -1);
+            return node;
+        }
+    }
+}
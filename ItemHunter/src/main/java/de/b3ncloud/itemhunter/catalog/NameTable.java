@@ -0,0 +1,167 @@
+package de.b3ncloud.itemhunter.catalog;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Translatable;
+import org.bukkit.entity.EntityType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Anzeigenamen der Ziele, einmal beim Laden des Katalogs berechnet.
+ *
+ * Pro Index (Material-/EntityType-Ordinal bzw. Katalog-Position bei Advancements) stehen
+ * hübscher Name, Sortier-Schlüssel und Übersetzungs-Key für den Client bereit.
+ * Nachrichten und GUIs lesen nur noch aus den Arrays, ohne neue Strings zu bauen.
+ */
+public class NameTable {
+
+    private final String[] names;
+    private final String[] sortKeys;
+    private final String[] translationKeys;
+    
+    // Indizes sortiert nach Sortier-Schlüssel (Anzeige-Reihenfolge der GUIs)
+    private final int[] sortOrder;
+    
+    private NameTable(String[] names, String[] sortKeys, String[] translationKeys) {
+        this.names = names;
+        this.sortKeys = sortKeys;
+        this.translationKeys = translationKeys;
+        
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> sortKeys[i]));
+        this.sortOrder = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+    
+    // ============ AUFBAU ============
+    
+    /**
+     * Alle Materialien, Index = Material.ordinal()
+     */
+    public static NameTable forItems() {
+        Material[] materials = Material.values();
+        String[] names = new String[materials.length];
+        String[] sortKeys = new String[materials.length];
+        String[] translationKeys = new String[materials.length];
+        
+        for (Material material : materials) {
+            int i = material.ordinal();
+            names[i] = prettify(material.name());
+            sortKeys[i] = material.name();
+            translationKeys[i] = material.isLegacy() ? null : translationKey(material);
+        }
+        return new NameTable(names, sortKeys, translationKeys);
+    }
+    
+    /**
+     * Alle Entity-Typen, Index = EntityType.ordinal()
+     */
+    public static NameTable forMobs() {
+        EntityType[] types = EntityType.values();
+        String[] names = new String[types.length];
+        String[] sortKeys = new String[types.length];
+        String[] translationKeys = new String[types.length];
+        
+        for (EntityType type : types) {
+            int i = type.ordinal();
+            names[i] = prettify(type.name());
+            sortKeys[i] = type.name();
+            translationKeys[i] = translationKey(type);
+        }
+        return new NameTable(names, sortKeys, translationKeys);
+    }
+    
+    /**
+     * Advancements des Katalogs, Index = Position in der Liste
+     */
+    public static NameTable forAdvancements(List<NamespacedKey> advancements) {
+        int size = advancements.size();
+        String[] names = new String[size];
+        String[] sortKeys = new String[size];
+        String[] translationKeys = new String[size];
+        
+        for (int i = 0; i < size; i++) {
+            NamespacedKey key = advancements.get(i);
+            names[i] = advancementName(key);
+            sortKeys[i] = key.toString();
+            // minecraft:story/mine_stone -> advancements.story.mine_stone.title
+            translationKeys[i] = "advancements." + key.getKey().replace('/', '.') + ".title";
+        }
+        return new NameTable(names, sortKeys, translationKeys);
+    }
+    
+    // ============ ZUGRIFF ============
+    
+    public String getName(int index) {
+        return names[index];
+    }
+    
+    public String getSortKey(int index) {
+        return sortKeys[index];
+    }
+    
+    /**
+     * Übersetzungs-Key für den Client, oder null wenn der Server keinen liefert
+     */
+    public String getTranslationKey(int index) {
+        return translationKeys[index];
+    }
+    
+    /**
+     * Indizes sortiert nach Sortier-Schlüssel (Kopie)
+     */
+    public int[] getSortOrder() {
+        return sortOrder.clone();
+    }
+    
+    public int size() {
+        return names.length;
+    }
+    
+    // ============ FORMATIERUNG ============
+    
+    /**
+     * Name eines Advancements: minecraft:story/mine_stone -> Mine Stone
+     */
+    public static String advancementName(NamespacedKey key) {
+        String path = key.getKey();
+        return prettify(path.substring(path.lastIndexOf('/') + 1));
+    }
+    
+    /**
+     * DIAMOND_SWORD / diamond_sword -> Diamond Sword
+     */
+    private static String prettify(String raw) {
+        String name = raw.toLowerCase().replace("_", " ");
+        StringBuilder result = new StringBuilder(name.length());
+        boolean capitalizeNext = true;
+        
+        for (char c : name.toCharArray()) {
+            if (c == ' ') {
+                capitalizeNext = true;
+                result.append(c);
+            } else if (capitalizeNext) {
+                result.append(Character.toUpperCase(c));
+                capitalizeNext = false;
+            } else {
+                result.append(c);
+            }
+        }
+        
+        return result.toString();
+    }
+    
+    private static String translationKey(Translatable translatable) {
+        try {
+            return translatable.getTranslationKey();
+        } catch (RuntimeException e) {
+            // Einige Typen (z.B. UNKNOWN) haben keinen Übersetzungs-Key
+            return null;
+        }
+    }
+}
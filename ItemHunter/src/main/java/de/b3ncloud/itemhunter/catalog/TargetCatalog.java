@@ -0,0 +1,87 @@
+package de.b3ncloud.itemhunter.catalog;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.EntityType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unveränderliche Liste aller Challenge-Ziele (Items, Mobs, Advancements)
+ * für eine Server-Version und Konfiguration
+ */
+public class TargetCatalog {
+
+    private final String cacheKey;
+    private final List<Material> items;
+    private final List<EntityType> mobs;
+    private final List<NamespacedKey> advancements;
+    private final Map<NamespacedKey, Integer> advancementIndex = new HashMap<>();
+    
+    // Anzeigenamen, einmal pro Katalog berechnet
+    private final NameTable itemNames;
+    private final NameTable mobNames;
+    private final NameTable advancementNames;
+    
+    public TargetCatalog(String cacheKey, List<Material> items, List<EntityType> mobs, List<NamespacedKey> advancements) {
+        this.cacheKey = cacheKey;
+        this.items = Collections.unmodifiableList(items);
+        this.mobs = Collections.unmodifiableList(mobs);
+        this.advancements = Collections.unmodifiableList(advancements);
+        
+        for (int i = 0; i < advancements.size(); i++) {
+            advancementIndex.put(advancements.get(i), i);
+        }
+        
+        this.itemNames = NameTable.forItems();
+        this.mobNames = NameTable.forMobs();
+        this.advancementNames = NameTable.forAdvancements(this.advancements);
+    }
+    
+    public String getCacheKey() {
+        return cacheKey;
+    }
+    
+    public List<Material> getItems() {
+        return items;
+    }
+    
+    public List<EntityType> getMobs() {
+        return mobs;
+    }
+    
+    public List<NamespacedKey> getAdvancements() {
+        return advancements;
+    }
+    
+    /**
+     * Position eines Advancements im Katalog, oder -1
+     */
+    public int indexOfAdvancement(NamespacedKey key) {
+        return advancementIndex.getOrDefault(key, -1);
+    }
+    
+    /**
+     * Namen aller Materialien, Index = Material.ordinal()
+     */
+    public NameTable getItemNames() {
+        return itemNames;
+    }
+    
+    /**
+     * Namen aller Entity-Typen, Index = EntityType.ordinal()
+     */
+    public NameTable getMobNames() {
+        return mobNames;
+    }
+    
+    /**
+     * Namen der Advancements, Index = Position im Katalog
+     */
+    public NameTable getAdvancementNames() {
+        return advancementNames;
+    }
+}
@@ -1,14 +1,24 @@
 package de.b3ncloud.itemhunter.commands;
 
 import de.b3ncloud.itemhunter.ItemHunter;
+import de.b3ncloud.itemhunter.managers.TimerManager;
+import de.b3ncloud.itemhunter.perf.ServerProbe;
+import de.b3ncloud.itemhunter.perf.TickSampler;
+import de.b3ncloud.itemhunter.persistence.ProgressJournal;
+import de.b3ncloud.itemhunter.persistence.ProgressSnapshot;
+import de.b3ncloud.itemhunter.progress.Timeline;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -19,9 +29,18 @@ import java.util.stream.Collectors;
  */
 public class ItemHuntCommand implements CommandExecutor, TabCompleter {
 
+    // Exporte liegen getrennt von config.yml, item-rules.yml und den Spielständen
+    private static final String EXPORT_FOLDER = "exports";
+    
+    // Anzahl der langsamsten Abstände in /itemhunt splits
+    private static final int SLOWEST_SPLITS = 5;
+    
+    private static final Material[] MATERIALS = Material.values();
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    
     private final ItemHunter plugin;
     private final List<String> subCommands = Arrays.asList(
-            "start", "stop", "pause", "resume", "items", "progress", "reset", "help"
+            "start", "stop", "pause", "resume", "items", "progress", "splits", "reset", "export", "import", "perf", "help"
     );
     
     public ItemHuntCommand(ItemHunter plugin) {
@@ -56,9 +75,21 @@ public class ItemHuntCommand implements CommandExecutor, TabCompleter {
             case "progress":
                 handleProgress(sender);
                 break;
+            case "splits":
+                handleSplits(sender);
+                break;
             case "reset":
                 handleReset(sender, args);
                 break;
+            case "export":
+                handleExport(sender, args);
+                break;
+            case "import":
+                handleImport(sender, args);
+                break;
+            case "perf":
+                handlePerf(sender);
+                break;
             case "help":
             default:
                 showHelp(sender);
@@ -80,10 +111,13 @@ public class ItemHuntCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        // Alle Manager initialisieren
+        // Alle Manager initialisieren (Ziele aus dem gecachten Katalog)
+        plugin.reloadCatalog();
+        plugin.getPersistence().deleteAll(plugin.getJournal().rotate(plugin.getCatalog().getCacheKey()));
         plugin.getItemManager().initializeItems();
         plugin.getMobManager().initializeMobs();
         plugin.getAchievementManager().initializeAdvancements();
+        plugin.getTimeline().clear();
         
         int totalItems = plugin.getItemManager().getTotalItems();
         int totalMobs = plugin.getMobManager().getTotalMobs();
@@ -108,9 +142,7 @@ public class ItemHuntCommand implements CommandExecutor, TabCompleter {
         Bukkit.broadcastMessage("");
         
         // Alle Spieler zur BossBar hinzufügen
-        for (Player player : plugin.getServer().getOnlinePlayers()) {
-            plugin.getProgressBar().addPlayer(player);
-        }
+        plugin.getFrameRenderer().addAllBossBarViewers();
     }
     
     private void handleStop(CommandSender sender) {
@@ -131,7 +163,7 @@ public class ItemHuntCommand implements CommandExecutor, TabCompleter {
         plugin.getTimerManager().stop();
         
         // BossBar entfernen
-        plugin.getProgressBar().removeAll();
+        plugin.getFrameRenderer().clearBossBarViewers();
         
         // Broadcast
         String message = plugin.getMessage("challenge-stopped");
@@ -278,18 +310,188 @@ public class ItemHuntCommand implements CommandExecutor, TabCompleter {
         // Stoppen falls aktiv
         if (plugin.getTimerManager().isActive()) {
             plugin.getTimerManager().stop();
-            plugin.getProgressBar().removeAll();
+            plugin.getFrameRenderer().clearBossBarViewers();
         }
         
         // Daten löschen
         plugin.getItemManager().reset();
         plugin.getMobManager().reset();
         plugin.getAchievementManager().reset();
+        plugin.getTimeline().clear();
         plugin.getTimerManager().reset();
+        plugin.getPersistence().deleteAll(plugin.getJournal().rotate());
         
         sender.sendMessage(plugin.getPrefix() + ChatColor.GREEN + "Challenge-Daten wurden zurückgesetzt!");
     }
     
+    private void handleExport(CommandSender sender, String[] args) {
+        if (!hasPermission(sender, "itemhunter.admin")) {
+            return;
+        }
+        
+        File file = resolveExportFile(sender, args);
+        if (file == null) return;
+        
+        // Snapshot jetzt kopieren, Schreiben im Hintergrund
+        plugin.getPersistence().exportYaml(ProgressSnapshot.capture(plugin), file, error -> {
+            if (error == null) {
+                sender.sendMessage(plugin.getPrefix() + ChatColor.GREEN + "Fortschritt exportiert nach " +
+                        ChatColor.WHITE + EXPORT_FOLDER + "/" + file.getName());
+            } else {
+                sender.sendMessage(plugin.getPrefix() + ChatColor.RED + "Export fehlgeschlagen: " + error);
+            }
+        });
+    }
+    
+    private void handleImport(CommandSender sender, String[] args) {
+        if (!hasPermission(sender, "itemhunter.admin")) {
+            return;
+        }
+        
+        if (plugin.getTimerManager().isActive()) {
+            sender.sendMessage(plugin.getPrefix() + ChatColor.RED + "Stoppe zuerst die laufende Challenge!");
+            return;
+        }
+        
+        File file = resolveExportFile(sender, args);
+        if (file == null) return;
+        
+        if (!file.exists()) {
+            sender.sendMessage(plugin.getPrefix() + ChatColor.RED + "Datei nicht gefunden: " + EXPORT_FOLDER + "/" + file.getName());
+            return;
+        }
+        
+        plugin.getPersistence().importYaml(file, snapshot -> {
+            if (snapshot == null) {
+                sender.sendMessage(plugin.getPrefix() + ChatColor.RED + "Import fehlgeschlagen (siehe Konsole)");
+                return;
+            }
+            
+            snapshot.apply(plugin);
+            plugin.compactJournal();
+            plugin.getProgressModel().changed();
+            plugin.getFrameRenderer().renderBossBar();
+            
+            sender.sendMessage(plugin.getPrefix() + ChatColor.GREEN + "Fortschritt importiert aus " +
+                    ChatColor.WHITE + EXPORT_FOLDER + "/" + file.getName());
+        });
+    }
+    
+    private void handleSplits(CommandSender sender) {
+        Timeline timeline = plugin.getTimeline();
+        int finds = timeline.getFindCount();
+        if (finds == 0) {
+            sender.sendMessage(plugin.getPrefix() + ChatColor.RED + "Noch keine Funde in dieser Challenge!");
+            return;
+        }
+        
+        sender.sendMessage("");
+        sender.sendMessage(plugin.getPrefix() + ChatColor.GOLD + "═══ Splits ═══");
+        sender.sendMessage(ChatColor.GRAY + "  Funde: " + ChatColor.WHITE + finds +
+                ChatColor.DARK_GRAY + " (ohne übersprungene Ziele)");
+        
+        // Funde pro angefangener Stunde
+        int[] hours = timeline.getFindsPerHour();
+        StringBuilder perHour = new StringBuilder();
+        for (int hour = 0; hour < hours.length; hour++) {
+            if (hour > 0) perHour.append(ChatColor.DARK_GRAY).append(", ");
+            perHour.append(ChatColor.GRAY).append(hour + 1).append("h: ").append(ChatColor.WHITE).append(hours[hour]);
+        }
+        sender.sendMessage(ChatColor.GRAY + "  Pro Stunde: " + perHour);
+        sender.sendMessage("");
+        
+        // Längste Abstände zwischen zwei Funden
+        sender.sendMessage(ChatColor.GRAY + "  Längste Abstände:");
+        int rank = 1;
+        for (int index : timeline.getSlowest(SLOWEST_SPLITS)) {
+            sender.sendMessage(ChatColor.WHITE + "  " + rank++ + ". " +
+                    ChatColor.RED + "+" + TimerManager.formatPrecise(timeline.getGapMillis(index)) + " " +
+                    ChatColor.WHITE + getTargetName(timeline.getKind(index), timeline.getTarget(index)) +
+                    ChatColor.GRAY + " von " + ChatColor.GREEN + plugin.getPlayerRegistry().nameOf(timeline.getPlayer(index)) +
+                    ChatColor.DARK_GRAY + " bei " + TimerManager.formatPrecise(timeline.getElapsedMillis(index)));
+        }
+        sender.sendMessage("");
+    }
+    
+    /**
+     * Anzeigename eines Timeline-Ziels (Ordinal bzw. Katalog-Index je nach Art)
+     */
+    private String getTargetName(byte kind, int target) {
+        switch (kind) {
+            case ProgressJournal.KIND_ITEM:
+                return target >= 0 && target < MATERIALS.length
+                        ? plugin.getItemManager().getItemName(MATERIALS[target]) : "?";
+            case ProgressJournal.KIND_MOB:
+                return target >= 0 && target < ENTITY_TYPES.length
+                        ? plugin.getMobManager().getMobName(ENTITY_TYPES[target]) : "?";
+            case ProgressJournal.KIND_ADVANCEMENT:
+                List<NamespacedKey> advancements = plugin.getCatalog().getAdvancements();
+                return target >= 0 && target < advancements.size()
+                        ? plugin.getAchievementManager().getAdvancementName(advancements.get(target)) : "?";
+            default:
+                return "?";
+        }
+    }
+    
+    private void handlePerf(CommandSender sender) {
+        if (!hasPermission(sender, "itemhunter.admin")) {
+            return;
+        }
+        
+        TickSampler sampler = plugin.getTickSampler();
+        ServerProbe probe = plugin.getServerProbe();
+        
+        sender.sendMessage("");
+        sender.sendMessage(plugin.getPrefix() + ChatColor.GOLD + "═══ Performance ═══");
+        sender.sendMessage(ChatColor.GRAY + "  Quelle: " + ChatColor.WHITE + sampler.getSourceName());
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.GRAY + "  Fenster   Ø      p50    p95    p99    max  (ms)");
+        sendPerfLine(sender, "5s ", sampler.getStats(TickSampler.WINDOW_5S));
+        sendPerfLine(sender, "1m ", sampler.getStats(TickSampler.WINDOW_1M));
+        sendPerfLine(sender, "5m ", sampler.getStats(TickSampler.WINDOW_5M));
+        sender.sendMessage("");
+        
+        String server = ChatColor.GRAY + "  Server: " + ChatColor.WHITE + "TPS " + String.format("%.2f", probe.getTps());
+        if (probe.hasMspt()) {
+            server += ChatColor.GRAY + ", " + ChatColor.WHITE + "MSPT " + String.format("%.2f", probe.getMspt());
+        }
+        sender.sendMessage(server);
+        sender.sendMessage("");
+    }
+    
+    private void sendPerfLine(CommandSender sender, String window, TickSampler.Stats stats) {
+        if (stats == null) {
+            sender.sendMessage(ChatColor.WHITE + "  " + window + ChatColor.GRAY + "   noch keine Messwerte");
+            return;
+        }
+        
+        sender.sendMessage(ChatColor.WHITE + "  " + window + ChatColor.AQUA + String.format("     %6.1f %6.1f %6.1f %6.1f %6.1f",
+                stats.getMean(), stats.getP50(), stats.getP95(), stats.getP99(), stats.getMax()) +
+                ChatColor.DARK_GRAY + "  (" + stats.getSamples() + " Ticks)");
+    }
+    
+    /**
+     * Export-Datei im Unterordner exports/ (nur einfache Dateinamen erlaubt, Ordner wird bei Bedarf angelegt)
+     */
+    private File resolveExportFile(CommandSender sender, String[] args) {
+        String name = args.length >= 2 ? args[1] : "export";
+        if (name.endsWith(".yml")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        
+        if (!name.matches("[A-Za-z0-9_-]+")) {
+            sender.sendMessage(plugin.getPrefix() + ChatColor.RED + "Ungültiger Dateiname: " + name);
+            return null;
+        }
+        
+        File folder = new File(plugin.getDataFolder(), EXPORT_FOLDER);
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            sender.sendMessage(plugin.getPrefix() + ChatColor.RED + "Ordner " + EXPORT_FOLDER + "/ konnte nicht angelegt werden");
+            return null;
+        }
+        return new File(folder, name + ".yml");
+    }
+    
     private void showHelp(CommandSender sender) {
         sender.sendMessage("");
         sender.sendMessage(ChatColor.GOLD + "=== ItemHunter Befehle ===");
@@ -300,7 +502,11 @@ public class ItemHuntCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.WHITE + "/itemhunt resume" + ChatColor.GRAY + " - Setzt den Timer fort");
         sender.sendMessage(ChatColor.WHITE + "/itemhunt items" + ChatColor.GRAY + " - Zeigt fehlende Items");
         sender.sendMessage(ChatColor.WHITE + "/itemhunt progress" + ChatColor.GRAY + " - Zeigt den Fortschritt");
+        sender.sendMessage(ChatColor.WHITE + "/itemhunt splits" + ChatColor.GRAY + " - Zeigt Funde pro Stunde und die längsten Abstände");
         sender.sendMessage(ChatColor.WHITE + "/itemhunt reset" + ChatColor.GRAY + " - Setzt alle Daten zurück");
+        sender.sendMessage(ChatColor.WHITE + "/itemhunt export [datei]" + ChatColor.GRAY + " - Exportiert den Fortschritt als YAML");
+        sender.sendMessage(ChatColor.WHITE + "/itemhunt import [datei]" + ChatColor.GRAY + " - Importiert einen YAML-Export");
+        sender.sendMessage(ChatColor.WHITE + "/itemhunt perf" + ChatColor.GRAY + " - Zeigt Tick-Zeiten (MSPT) der letzten 5s/1m/5m");
         sender.sendMessage("");
     }
     
@@ -1,10 +1,8 @@
 package de.b3ncloud.itemhunter.gui;
 
 import de.b3ncloud.itemhunter.ItemHunter;
-import de.b3ncloud.itemhunter.managers.AchievementManager;
 import de.b3ncloud.itemhunter.managers.ItemManager;
 import de.b3ncloud.itemhunter.managers.MobManager;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
@@ -55,7 +53,7 @@ public class ChallengeGUI implements Listener {
     public void openOverview(Player player) {
         playerTabs.put(player, TabType.OVERVIEW);
         
-        Inventory gui = Bukkit.createInventory(null, 54, GUI_TITLE);
+        Inventory gui = MenuHolder.create(MenuHolder.View.CHALLENGE, 0, 54, GUI_TITLE);
         
         // Hintergrund
         fillBackground(gui, Material.BLACK_STAINED_GLASS_PANE);
@@ -122,25 +120,24 @@ public class ChallengeGUI implements Listener {
         playerTabs.put(player, TabType.ITEMS);
         playerPages.put(player, page);
         
-        List<Material> remaining = plugin.getItemManager().getRemainingItemsSorted();
-        int totalPages = Math.max(1, (int) Math.ceil((double) remaining.size() / ITEMS_PER_PAGE));
+        int remainingCount = plugin.getItemManager().getRemainingCount();
+        int totalPages = Math.max(1, (int) Math.ceil((double) remainingCount / ITEMS_PER_PAGE));
         page = Math.max(0, Math.min(page, totalPages - 1));
         
-        Inventory gui = Bukkit.createInventory(null, 54, GUI_TITLE);
+        Inventory gui = MenuHolder.create(MenuHolder.View.CHALLENGE, 0, 54, GUI_TITLE);
         
         // Hintergrund für Navigation
         for (int i = 45; i < 54; i++) {
-            gui.setItem(i, createGlassPane(Material.GREEN_STAINED_GLASS_PANE, " "));
+            gui.setItem(i, plugin.getDisplayCache().getPane(Material.GREEN_STAINED_GLASS_PANE));
         }
         
         // Tab-Leiste (Zeile 0)
         addTabBar(gui, TabType.ITEMS);
         
-        // Items anzeigen (Zeile 1-4, Slots 9-44)
-        int startIndex = page * ITEMS_PER_PAGE;
-        for (int i = 0; i < ITEMS_PER_PAGE && (startIndex + i) < remaining.size(); i++) {
-            Material material = remaining.get(startIndex + i);
-            gui.setItem(9 + i, createItemDisplay(material));
+        // Items anzeigen (Zeile 1-4, Slots 9-44) - nur die Einträge dieser Seite
+        List<Material> remaining = plugin.getItemManager().getRemainingItemsPage(page * ITEMS_PER_PAGE, ITEMS_PER_PAGE);
+        for (int i = 0; i < remaining.size(); i++) {
+            gui.setItem(9 + i, plugin.getDisplayCache().getChallengeItem(remaining.get(i)));
         }
         
         // Navigation
@@ -151,7 +148,7 @@ public class ChallengeGUI implements Listener {
         int total = plugin.getItemManager().getTotalItems();
         gui.setItem(49, createInfoDisplay(
                 ChatColor.GREEN + "Items: " + found + "/" + total,
-                remaining.size() + " noch zu finden"
+                remainingCount + " noch zu finden"
         ));
         
         player.openInventory(gui);
@@ -163,25 +160,24 @@ public class ChallengeGUI implements Listener {
         playerTabs.put(player, TabType.MOBS);
         playerPages.put(player, page);
         
-        List<EntityType> remaining = plugin.getMobManager().getRemainingMobsSorted();
-        int totalPages = Math.max(1, (int) Math.ceil((double) remaining.size() / ITEMS_PER_PAGE));
+        int remainingCount = plugin.getMobManager().getRemainingCount();
+        int totalPages = Math.max(1, (int) Math.ceil((double) remainingCount / ITEMS_PER_PAGE));
         page = Math.max(0, Math.min(page, totalPages - 1));
         
-        Inventory gui = Bukkit.createInventory(null, 54, GUI_TITLE);
+        Inventory gui = MenuHolder.create(MenuHolder.View.CHALLENGE, 0, 54, GUI_TITLE);
         
         // Hintergrund für Navigation
         for (int i = 45; i < 54; i++) {
-            gui.setItem(i, createGlassPane(Material.RED_STAINED_GLASS_PANE, " "));
+            gui.setItem(i, plugin.getDisplayCache().getPane(Material.RED_STAINED_GLASS_PANE));
         }
         
         // Tab-Leiste
         addTabBar(gui, TabType.MOBS);
         
         // Mobs anzeigen
-        int startIndex = page * ITEMS_PER_PAGE;
-        for (int i = 0; i < ITEMS_PER_PAGE && (startIndex + i) < remaining.size(); i++) {
-            EntityType type = remaining.get(startIndex + i);
-            gui.setItem(9 + i, createMobDisplay(type));
+        List<EntityType> remaining = plugin.getMobManager().getRemainingMobsPage(page * ITEMS_PER_PAGE, ITEMS_PER_PAGE);
+        for (int i = 0; i < remaining.size(); i++) {
+            gui.setItem(9 + i, plugin.getDisplayCache().getMob(remaining.get(i)));
         }
         
         // Navigation
@@ -192,7 +188,7 @@ public class ChallengeGUI implements Listener {
         int total = plugin.getMobManager().getTotalMobs();
         gui.setItem(49, createInfoDisplay(
                 ChatColor.RED + "Mobs: " + killed + "/" + total,
-                remaining.size() + " noch zu töten"
+                remainingCount + " noch zu töten"
         ));
         
         player.openInventory(gui);
@@ -204,25 +200,24 @@ public class ChallengeGUI implements Listener {
         playerTabs.put(player, TabType.ACHIEVEMENTS);
         playerPages.put(player, page);
         
-        List<NamespacedKey> remaining = plugin.getAchievementManager().getRemainingAdvancementsSorted();
-        int totalPages = Math.max(1, (int) Math.ceil((double) remaining.size() / ITEMS_PER_PAGE));
+        int remainingCount = plugin.getAchievementManager().getRemainingCount();
+        int totalPages = Math.max(1, (int) Math.ceil((double) remainingCount / ITEMS_PER_PAGE));
         page = Math.max(0, Math.min(page, totalPages - 1));
         
-        Inventory gui = Bukkit.createInventory(null, 54, GUI_TITLE);
+        Inventory gui = MenuHolder.create(MenuHolder.View.CHALLENGE, 0, 54, GUI_TITLE);
         
         // Hintergrund für Navigation
         for (int i = 45; i < 54; i++) {
-            gui.setItem(i, createGlassPane(Material.MAGENTA_STAINED_GLASS_PANE, " "));
+            gui.setItem(i, plugin.getDisplayCache().getPane(Material.MAGENTA_STAINED_GLASS_PANE));
         }
         
         // Tab-Leiste
         addTabBar(gui, TabType.ACHIEVEMENTS);
         
         // Achievements anzeigen
-        int startIndex = page * ITEMS_PER_PAGE;
-        for (int i = 0; i < ITEMS_PER_PAGE && (startIndex + i) < remaining.size(); i++) {
-            NamespacedKey key = remaining.get(startIndex + i);
-            gui.setItem(9 + i, createAchievementDisplay(key));
+        List<NamespacedKey> remaining = plugin.getAchievementManager().getRemainingAdvancementsPage(page * ITEMS_PER_PAGE, ITEMS_PER_PAGE);
+        for (int i = 0; i < remaining.size(); i++) {
+            gui.setItem(9 + i, plugin.getDisplayCache().getAchievement(remaining.get(i)));
         }
         
         // Navigation
@@ -233,7 +228,7 @@ public class ChallengeGUI implements Listener {
         int total = plugin.getAchievementManager().getTotalAdvancements();
         gui.setItem(49, createInfoDisplay(
                 ChatColor.LIGHT_PURPLE + "Achievements: " + completed + "/" + total,
-                remaining.size() + " noch zu erreichen"
+                remainingCount + " noch zu erreichen"
         ));
         
         player.openInventory(gui);
@@ -411,67 +406,6 @@ public class ChallengeGUI implements Listener {
         return item;
     }
     
-    private ItemStack createItemDisplay(Material material) {
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        
-        String name = ItemManager.formatItemName(material);
-        meta.setDisplayName(ChatColor.RED + "❌ " + ChatColor.WHITE + name);
-        
-        List<String> lore = new ArrayList<>();
-        lore.add("");
-        lore.add(ChatColor.GRAY + "ID: " + ChatColor.DARK_GRAY + material.name());
-        lore.add("");
-        lore.add(ChatColor.YELLOW + "Noch nicht gefunden!");
-        
-        meta.setLore(lore);
-        item.setItemMeta(meta);
-        return item;
-    }
-    
-    private ItemStack createMobDisplay(EntityType type) {
-        // Versuche passendes Material für den Mob zu finden
-        Material material = getMobMaterial(type);
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        
-        String name = MobManager.formatMobName(type);
-        meta.setDisplayName(ChatColor.RED + "☠ " + ChatColor.WHITE + name);
-        
-        List<String> lore = new ArrayList<>();
-        lore.add("");
-        lore.add(ChatColor.GRAY + "Typ: " + ChatColor.DARK_GRAY + type.name());
-        lore.add("");
-        lore.add(ChatColor.YELLOW + "Noch nicht getötet!");
-        
-        meta.setLore(lore);
-        item.setItemMeta(meta);
-        return item;
-    }
-    
-    private ItemStack createAchievementDisplay(NamespacedKey key) {
-        // Material basierend auf Kategorie
-        Material material = getAchievementMaterial(key);
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        
-        String name = AchievementManager.formatAdvancementName(key);
-        String category = AchievementManager.getCategory(key);
-        
-        meta.setDisplayName(ChatColor.RED + "★ " + ChatColor.WHITE + name);
-        
-        List<String> lore = new ArrayList<>();
-        lore.add("");
-        lore.add(ChatColor.GRAY + "Kategorie: " + ChatColor.LIGHT_PURPLE + category);
-        lore.add(ChatColor.DARK_GRAY + key.toString());
-        lore.add("");
-        lore.add(ChatColor.YELLOW + "Noch nicht erreicht!");
-        
-        meta.setLore(lore);
-        item.setItemMeta(meta);
-        return item;
-    }
-    
     private ItemStack createInfoDisplay(String title, String subtitle) {
         ItemStack item = new ItemStack(Material.PAPER);
         ItemMeta meta = item.getItemMeta();
@@ -485,16 +419,8 @@ public class ChallengeGUI implements Listener {
         return item;
     }
     
-    private ItemStack createGlassPane(Material material, String name) {
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        meta.setDisplayName(name);
-        item.setItemMeta(meta);
-        return item;
-    }
-    
     private void fillBackground(Inventory gui, Material material) {
-        ItemStack filler = createGlassPane(material, " ");
+        ItemStack filler = plugin.getDisplayCache().getPane(material);
         for (int i = 0; i < gui.getSize(); i++) {
             gui.setItem(i, filler);
         }
@@ -515,52 +441,14 @@ public class ChallengeGUI implements Listener {
         return bar.toString();
     }
     
-    private Material getMobMaterial(EntityType type) {
-        // Spawn Egg für den Mob zurückgeben
-        // Spezialfälle ohne Spawn Egg
-        switch (type) {
-            case ENDER_DRAGON:
-                return Material.DRAGON_EGG;
-            case WITHER:
-                return Material.NETHER_STAR;
-            case IRON_GOLEM:
-                return Material.IRON_GOLEM_SPAWN_EGG;
-            case SNOW_GOLEM:
-                return Material.SNOW_GOLEM_SPAWN_EGG;
-            case GIANT:
-                return Material.ZOMBIE_SPAWN_EGG; // Giant hat kein Spawn Egg
-            case ILLUSIONER:
-                return Material.PILLAGER_SPAWN_EGG; // Illusioner hat kein Spawn Egg
-            default:
-                // Versuche automatisch das Spawn Egg zu finden
-                try {
-                    String eggName = type.name() + "_SPAWN_EGG";
-                    return Material.valueOf(eggName);
-                } catch (IllegalArgumentException e) {
-                    // Fallback wenn kein Spawn Egg existiert
-                    return Material.CREEPER_SPAWN_EGG;
-                }
-        }
-    }
-    
-    private Material getAchievementMaterial(NamespacedKey key) {
-        String path = key.getKey();
-        if (path.startsWith("story/")) return Material.GRASS_BLOCK;
-        if (path.startsWith("nether/")) return Material.NETHERRACK;
-        if (path.startsWith("end/")) return Material.END_STONE;
-        if (path.startsWith("adventure/")) return Material.MAP;
-        if (path.startsWith("husbandry/")) return Material.WHEAT;
-        return Material.BOOK;
-    }
-    
     // ============ EVENT HANDLER ============
     
     @EventHandler
     public void onInventoryClick(InventoryClickEvent event) {
         if (!(event.getWhoClicked() instanceof Player)) return;
         
-        String title = event.getView().getTitle();
-        if (!title.equals(GUI_TITLE)) return;
+        MenuHolder menu = MenuHolder.of(event.getView().getTopInventory());
+        if (menu == null || menu.getView() != MenuHolder.View.CHALLENGE) return;
         
         event.setCancelled(true);
         
@@ -0,0 +1,271 @@
+package de.b3ncloud.itemhunter.gui;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import de.b3ncloud.itemhunter.catalog.TargetCatalog;
+import de.b3ncloud.itemhunter.managers.AchievementManager;
+import de.b3ncloud.itemhunter.managers.ItemManager;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fertige Anzeige-Items für die GUIs, einmal pro Ziel gebaut statt bei jedem Öffnen.
+ *
+ * Pro Ziel gibt es eine Vorlage "offen" und für Items zusätzlich "gefunden von X". Die Vorlagen
+ * enthalten keine Zähler, ein neuer Fund macht also nichts ungültig - nur die Gefunden-Vorlage
+ * wird neu gebaut, wenn sich Finder oder dessen Name ändern, und alles nach einem neuen Katalog.
+ * Vorlagen dürfen nicht verändert werden: Inventory#setItem kopiert den Stack ohnehin.
+ */
+public class DisplayCache {
+
+    /**
+     * Gefunden-Vorlage mit dem Finder, für den sie gebaut wurde
+     */
+    private static final class FoundTemplate {
+        private final int finder;
+        private final String finderName;
+        private final ItemStack stack;
+        
+        private FoundTemplate(int finder, String finderName, ItemStack stack) {
+            this.finder = finder;
+            this.finderName = finderName;
+            this.stack = stack;
+        }
+    }
+    
+    private final ItemHunter plugin;
+    
+    // Katalog, aus dem die Namen der Vorlagen stammen
+    private volatile TargetCatalog catalog;
+    
+    // ItemsGUI: offen / gefunden
+    private final Map<Material, ItemStack> itemRemaining = new ConcurrentHashMap<>();
+    private final Map<Material, FoundTemplate> itemFound = new ConcurrentHashMap<>();
+    
+    // ChallengeGUI: offene Ziele pro Tab
+    private final Map<Material, ItemStack> challengeItems = new ConcurrentHashMap<>();
+    private final Map<EntityType, ItemStack> mobs = new ConcurrentHashMap<>();
+    private final Map<NamespacedKey, ItemStack> achievements = new ConcurrentHashMap<>();
+    
+    // Hintergrund-Scheiben (Name " ")
+    private final Map<Material, ItemStack> panes = new ConcurrentHashMap<>();
+    
+    public DisplayCache(ItemHunter plugin) {
+        this.plugin = plugin;
+        this.catalog = plugin.getCatalog();
+    }
+    
+    // ============ ITEMS ============
+    
+    /**
+     * Offenes Item für die ItemsGUI
+     */
+    public ItemStack getItemRemaining(Material material) {
+        checkCatalog();
+        return itemRemaining.computeIfAbsent(material, m -> createItemDisplay(m, null));
+    }
+    
+    /**
+     * Gefundenes Item für die ItemsGUI mit Finder (oder "Übersprungen")
+     */
+    public ItemStack getItemFound(Material material) {
+        checkCatalog();
+        ItemManager itemManager = plugin.getItemManager();
+        int finder = itemManager.getItemFinderId(material);
+        String finderName = plugin.getPlayerRegistry().nameOf(finder);
+        
+        FoundTemplate template = itemFound.get(material);
+        if (template == null || template.finder != finder || !template.finderName.equals(finderName)) {
+            template = new FoundTemplate(finder, finderName, createItemDisplay(material, finderName));
+            itemFound.put(material, template);
+        }
+        return template.stack;
+    }
+    
+    /**
+     * Offenes Item für den Items-Tab der ChallengeGUI
+     */
+    public ItemStack getChallengeItem(Material material) {
+        checkCatalog();
+        return challengeItems.computeIfAbsent(material, this::createChallengeItem);
+    }
+    
+    // ============ MOBS / ACHIEVEMENTS ============
+    
+    public ItemStack getMob(EntityType type) {
+        checkCatalog();
+        return mobs.computeIfAbsent(type, this::createMobDisplay);
+    }
+    
+    public ItemStack getAchievement(NamespacedKey key) {
+        checkCatalog();
+        return achievements.computeIfAbsent(key, this::createAchievementDisplay);
+    }
+    
+    // ============ HINTERGRUND ============
+    
+    public ItemStack getPane(Material material) {
+        return panes.computeIfAbsent(material, m -> {
+            ItemStack item = new ItemStack(m);
+            ItemMeta meta = item.getItemMeta();
+            meta.setDisplayName(" ");
+            item.setItemMeta(meta);
+            return item;
+        });
+    }
+    
+    /**
+     * Verwirft alle Ziel-Vorlagen, wenn inzwischen ein anderer Katalog geladen wurde
+     */
+    private void checkCatalog() {
+        TargetCatalog current = plugin.getCatalog();
+        if (current == catalog) return;
+        
+        catalog = current;
+        itemRemaining.clear();
+        itemFound.clear();
+        challengeItems.clear();
+        mobs.clear();
+        achievements.clear();
+    }
+    
+    // ============ VORLAGEN BAUEN ============
+    
+    /**
+     * @param finder null für offen, sonst Name des Finders
+     */
+    private ItemStack createItemDisplay(Material material, String finder) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        
+        boolean found = finder != null;
+        String displayName = plugin.getItemManager().getItemName(material);
+        meta.setDisplayName((found ? ChatColor.GREEN + "✓ " : ChatColor.RED + "❌ ") +
+                ChatColor.WHITE + displayName);
+        
+        List<String> lore = new ArrayList<>();
+        lore.add("");
+        lore.add(ChatColor.GRAY + "Material: " + ChatColor.WHITE + material.name());
+        
+        if (found) {
+            lore.add("");
+            if (finder.equals(ItemManager.SKIP_FINDER)) {
+                lore.add(ChatColor.YELLOW + "Übersprungen");
+            } else {
+                lore.add(ChatColor.GRAY + "Gefunden von: " + ChatColor.GREEN + finder);
+            }
+        }
+        
+        meta.setLore(lore);
+        item.setItemMeta(meta);
+        
+        return item;
+    }
+    
+    private ItemStack createChallengeItem(Material material) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        
+        String name = plugin.getItemManager().getItemName(material);
+        meta.setDisplayName(ChatColor.RED + "❌ " + ChatColor.WHITE + name);
+        
+        List<String> lore = new ArrayList<>();
+        lore.add("");
+        lore.add(ChatColor.GRAY + "ID: " + ChatColor.DARK_GRAY + material.name());
+        lore.add("");
+        lore.add(ChatColor.YELLOW + "Noch nicht gefunden!");
+        
+        meta.setLore(lore);
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    private ItemStack createMobDisplay(EntityType type) {
+        // Versuche passendes Material für den Mob zu finden
+        Material material = getMobMaterial(type);
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        
+        String name = plugin.getMobManager().getMobName(type);
+        meta.setDisplayName(ChatColor.RED + "☠ " + ChatColor.WHITE + name);
+        
+        List<String> lore = new ArrayList<>();
+        lore.add("");
+        lore.add(ChatColor.GRAY + "Typ: " + ChatColor.DARK_GRAY + type.name());
+        lore.add("");
+        lore.add(ChatColor.YELLOW + "Noch nicht getötet!");
+        
+        meta.setLore(lore);
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    private ItemStack createAchievementDisplay(NamespacedKey key) {
+        // Material basierend auf Kategorie
+        Material material = getAchievementMaterial(key);
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        
+        String name = plugin.getAchievementManager().getAdvancementName(key);
+        String category = AchievementManager.getCategory(key);
+        
+        meta.setDisplayName(ChatColor.RED + "★ " + ChatColor.WHITE + name);
+        
+        List<String> lore = new ArrayList<>();
+        lore.add("");
+        lore.add(ChatColor.GRAY + "Kategorie: " + ChatColor.LIGHT_PURPLE + category);
+        lore.add(ChatColor.DARK_GRAY + key.toString());
+        lore.add("");
+        lore.add(ChatColor.YELLOW + "Noch nicht erreicht!");
+        
+        meta.setLore(lore);
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    private Material getMobMaterial(EntityType type) {
+        // Spawn Egg für den Mob zurückgeben
+        // Spezialfälle ohne Spawn Egg
+        switch (type) {
+            case ENDER_DRAGON:
+                return Material.DRAGON_EGG;
+            case WITHER:
+                return Material.NETHER_STAR;
+            case IRON_GOLEM:
+                return Material.IRON_GOLEM_SPAWN_EGG;
+            case SNOW_GOLEM:
+                return Material.SNOW_GOLEM_SPAWN_EGG;
+            case GIANT:
+                return Material.ZOMBIE_SPAWN_EGG; // Giant hat kein Spawn Egg
+            case ILLUSIONER:
+                return Material.PILLAGER_SPAWN_EGG; // Illusioner hat kein Spawn Egg
+            default:
+                // Versuche automatisch das Spawn Egg zu finden
+                try {
+                    String eggName = type.name() + "_SPAWN_EGG";
+                    return Material.valueOf(eggName);
+                } catch (IllegalArgumentException e) {
+                    // Fallback wenn kein Spawn Egg existiert
+                    return Material.CREEPER_SPAWN_EGG;
+                }
+        }
+    }
+    
+    private Material getAchievementMaterial(NamespacedKey key) {
+        String path = key.getKey();
+        if (path.startsWith("story/")) return Material.GRASS_BLOCK;
+        if (path.startsWith("nether/")) return Material.NETHERRACK;
+        if (path.startsWith("end/")) return Material.END_STONE;
+        if (path.startsWith("adventure/")) return Material.MAP;
+        if (path.startsWith("husbandry/")) return Material.WHEAT;
+        return Material.BOOK;
+    }
+}
@@ -2,7 +2,6 @@ package de.b3ncloud.itemhunter.gui;
 
 import de.b3ncloud.itemhunter.ItemHunter;
 import de.b3ncloud.itemhunter.managers.ItemManager;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -34,31 +33,28 @@ public class ItemsGUI implements Listener {
     
     public void openRemainingItems(Player player, int page) {
         ItemManager itemManager = plugin.getItemManager();
-        List<Material> remaining = itemManager.getRemainingItemsSorted();
+        int remainingCount = itemManager.getRemainingCount();
         
-        int totalPages = (int) Math.ceil((double) remaining.size() / ITEMS_PER_PAGE);
+        int totalPages = (int) Math.ceil((double) remainingCount / ITEMS_PER_PAGE);
         if (totalPages == 0) totalPages = 1;
         
         page = Math.max(0, Math.min(page, totalPages - 1));
         
         String title = GUI_TITLE_PREFIX + "Offen (" + (page + 1) + "/" + totalPages + ")";
-        Inventory gui = Bukkit.createInventory(null, 54, title);
+        Inventory gui = MenuHolder.create(MenuHolder.View.ITEMS_REMAINING, page, 54, title);
         
-        // Items anzeigen
-        int startIndex = page * ITEMS_PER_PAGE;
-        int endIndex = Math.min(startIndex + ITEMS_PER_PAGE, remaining.size());
+        // Items anzeigen (nur die Einträge dieser Seite)
+        List<Material> remaining = itemManager.getRemainingItemsPage(page * ITEMS_PER_PAGE, ITEMS_PER_PAGE);
         
-        for (int i = startIndex; i < endIndex; i++) {
-            Material material = remaining.get(i);
-            ItemStack item = createItemDisplay(material, false, null);
-            gui.setItem(i - startIndex, item);
+        for (int i = 0; i < remaining.size(); i++) {
+            gui.setItem(i, plugin.getDisplayCache().getItemRemaining(remaining.get(i)));
         }
         
         // Navigation Bar
         addNavigationBar(gui, page, totalPages, "remaining");
         
         // Info Item
-        gui.setItem(49, createInfoItem(remaining.size(), itemManager.getTotalItems(), false));
+        gui.setItem(49, createInfoItem(remainingCount, itemManager.getTotalItems(), false));
         
         player.openInventory(gui);
     }
@@ -73,17 +69,14 @@ public class ItemsGUI implements Listener {
         page = Math.max(0, Math.min(page, totalPages - 1));
         
         String title = GUI_TITLE_PREFIX + "Gefunden (" + (page + 1) + "/" + totalPages + ")";
-        Inventory gui = Bukkit.createInventory(null, 54, title);
+        Inventory gui = MenuHolder.create(MenuHolder.View.ITEMS_FOUND, page, 54, title);
         
         // Items anzeigen
         int startIndex = page * ITEMS_PER_PAGE;
         int endIndex = Math.min(startIndex + ITEMS_PER_PAGE, found.size());
         
         for (int i = startIndex; i < endIndex; i++) {
-            Material material = found.get(i);
-            String finder = itemManager.getItemFinder(material);
-            ItemStack item = createItemDisplay(material, true, finder);
-            gui.setItem(i - startIndex, item);
+            gui.setItem(i - startIndex, plugin.getDisplayCache().getItemFound(found.get(i)));
         }
         
         // Navigation Bar
@@ -99,7 +92,7 @@ public class ItemsGUI implements Listener {
         ItemManager itemManager = plugin.getItemManager();
         
         String title = GUI_TITLE_PREFIX + "Übersicht";
-        Inventory gui = Bukkit.createInventory(null, 27, title);
+        Inventory gui = MenuHolder.create(MenuHolder.View.ITEMS_OVERVIEW, 0, 27, title);
         
         int found = itemManager.getFoundCount();
         int total = itemManager.getTotalItems();
@@ -153,33 +146,6 @@ public class ItemsGUI implements Listener {
     
     // ============ GUI ITEMS ERSTELLEN ============
     
-    private ItemStack createItemDisplay(Material material, boolean found, String finder) {
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        
-        String displayName = ItemManager.formatItemName(material);
-        meta.setDisplayName((found ? ChatColor.GREEN + "✓ " : ChatColor.RED + "❌ ") + 
-                ChatColor.WHITE + displayName);
-        
-        List<String> lore = new ArrayList<>();
-        lore.add("");
-        lore.add(ChatColor.GRAY + "Material: " + ChatColor.WHITE + material.name());
-        
-        if (found && finder != null) {
-            lore.add("");
-            if (finder.equals("SKIP")) {
-                lore.add(ChatColor.YELLOW + "Übersprungen");
-            } else {
-                lore.add(ChatColor.GRAY + "Gefunden von: " + ChatColor.GREEN + finder);
-            }
-        }
-        
-        meta.setLore(lore);
-        item.setItemMeta(meta);
-        
-        return item;
-    }
-    
     private void addNavigationBar(Inventory gui, int currentPage, int totalPages, String type) {
         // Vorherige Seite
         if (currentPage > 0) {
@@ -254,8 +220,8 @@ public class ItemsGUI implements Listener {
     public void onInventoryClick(InventoryClickEvent event) {
         if (!(event.getWhoClicked() instanceof Player)) return;
         
-        String title = event.getView().getTitle();
-        if (!title.startsWith(GUI_TITLE_PREFIX)) return;
+        MenuHolder menu = MenuHolder.of(event.getView().getTopInventory());
+        if (menu == null || menu.getView() == MenuHolder.View.CHALLENGE) return;
         
         event.setCancelled(true);
         
@@ -270,7 +236,7 @@ public class ItemsGUI implements Listener {
         String displayName = meta.getDisplayName();
         
         // Übersicht GUI
-        if (title.contains("Übersicht")) {
+        if (menu.getView() == MenuHolder.View.ITEMS_OVERVIEW) {
             if (displayName.contains("Offene Items")) {
                 openRemainingItems(player, 0);
             } else if (displayName.contains("Gefundene Items")) {
@@ -280,16 +246,17 @@ public class ItemsGUI implements Listener {
         }
         
         // Navigation in Item-Listen
-        int currentPage = extractPageFromTitle(title);
+        int currentPage = menu.getPage();
+        boolean remaining = menu.getView() == MenuHolder.View.ITEMS_REMAINING;
         
         if (displayName.contains("Vorherige Seite")) {
-            if (title.contains("Offen")) {
+            if (remaining) {
                 openRemainingItems(player, currentPage - 1);
             } else {
                 openFoundItems(player, currentPage - 1);
             }
         } else if (displayName.contains("Nächste Seite")) {
-            if (title.contains("Offen")) {
+            if (remaining) {
                 openRemainingItems(player, currentPage + 1);
             } else {
                 openFoundItems(player, currentPage + 1);
@@ -302,18 +269,4 @@ public class ItemsGUI implements Listener {
             openRemainingItems(player, 0);
         }
     }
-    
-    private int extractPageFromTitle(String title) {
-        try {
-            // Format: "🎯 Item Hunt - Offen (1/5)"
-            int start = title.lastIndexOf("(") + 1;
-            int end = title.indexOf("/");
-            if (start > 0 && end > start) {
-                return Integer.parseInt(title.substring(start, end)) - 1;
-            }
-        } catch (Exception e) {
-            // Ignorieren
-        }
-        return 0;
-    }
 }
@@ -0,0 +1,64 @@
+package de.b3ncloud.itemhunter.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+/**
+ * Holder aller Plugin-GUIs. Menüs werden über den Holder erkannt statt über den Titel,
+ * die aktuelle Ansicht und Seite stehen direkt darin.
+ */
+public class MenuHolder implements InventoryHolder {
+
+    public enum View {
+        ITEMS_OVERVIEW,
+        ITEMS_REMAINING,
+        ITEMS_FOUND,
+        CHALLENGE
+    }
+    
+    private final View view;
+    private final int page;
+    private Inventory inventory;
+    
+    public MenuHolder(View view, int page) {
+        this.view = view;
+        this.page = page;
+    }
+    
+    public View getView() {
+        return view;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    void setInventory(Inventory inventory) {
+        this.inventory = inventory;
+    }
+    
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+    
+    /**
+     * Erstellt ein Inventar mit diesem Holder
+     */
+    public static Inventory create(View view, int page, int size, String title) {
+        MenuHolder holder = new MenuHolder(view, page);
+        Inventory inventory = Bukkit.createInventory(holder, size, title);
+        holder.setInventory(inventory);
+        return inventory;
+    }
+    
+    /**
+     * Ansicht des Menüs, oder null wenn das Inventar kein Plugin-Menü ist
+     */
+    public static MenuHolder of(Inventory inventory) {
+        if (inventory == null) return null;
+        InventoryHolder holder = inventory.getHolder();
+        return holder instanceof MenuHolder ? (MenuHolder) holder : null;
+    }
+}
@@ -1,6 +1,8 @@
 package de.b3ncloud.itemhunter.listeners;
 
 import de.b3ncloud.itemhunter.ItemHunter;
+import de.b3ncloud.itemhunter.gui.MenuHolder;
+import de.b3ncloud.itemhunter.managers.ItemManager;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -9,6 +11,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.inventory.CraftItemEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 /**
@@ -47,42 +50,31 @@ public class ItemPickupListener implements Listener {
         }
     }
     
+    /**
+     * Häufigstes Event des Servers: erst Bitmap-Prüfung, GUI-Erkennung nur bei Treffern
+     */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onInventoryClick(InventoryClickEvent event) {
         if (!(event.getWhoClicked() instanceof Player)) return;
         if (!plugin.getTimerManager().isRunning()) return;
         
-        // GUI Klicks ignorieren
-        String title = event.getView().getTitle();
-        if (title.contains("Item Hunt")) return;
+        Inventory clicked = event.getClickedInventory();
+        if (clicked == null) return;
         
         Player player = (Player) event.getWhoClicked();
         
-        // Item das in das Spieler-Inventar kommt prüfen
-        ItemStack cursor = event.getCursor();
-        ItemStack current = event.getCurrentItem();
+        // Genau ein Kandidat pro Klick: Klick/Shift-Klick in einen Container nimmt das Slot-Item heraus,
+        // Klick ins eigene Inventar legt das Cursor-Item ab
+        ItemStack stack = clicked != player.getInventory() ? event.getCurrentItem() : event.getCursor();
+        if (stack == null) return;
         
-        // Shift-Click in Spieler-Inventar
-        if (event.isShiftClick() && current != null && current.getType() != Material.AIR) {
-            // Prüfen ob vom Container ins Spieler-Inventar
-            if (event.getClickedInventory() != player.getInventory()) {
-                plugin.getItemManager().foundItem(player, current.getType());
-            }
-        }
+        Material material = stack.getType();
+        ItemManager itemManager = plugin.getItemManager();
+        if (!itemManager.isPending(material)) return;
         
-        // Normaler Click - Cursor Item ins Inventar
-        if (cursor != null && cursor.getType() != Material.AIR) {
-            if (event.getClickedInventory() == player.getInventory()) {
-                plugin.getItemManager().foundItem(player, cursor.getType());
-            }
-        }
+        // Plugin-Menüs zeigen offene Items an - Klicks darin zählen nicht
+        if (MenuHolder.of(event.getView().getTopInventory()) != null) return;
         
-        // Swap mit Slot
-        if (current != null && current.getType() != Material.AIR) {
-            if (event.getClickedInventory() != player.getInventory()) {
-                // Item aus Container aufgenommen
-                plugin.getItemManager().foundItem(player, current.getType());
-            }
-        }
+        itemManager.foundItem(player, material);
     }
 }
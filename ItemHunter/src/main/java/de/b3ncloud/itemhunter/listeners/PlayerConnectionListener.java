@@ -25,12 +25,17 @@ public class PlayerConnectionListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
+        // Namensänderungen übernehmen (Finder werden über die UUID geführt)
+        plugin.getPlayerRegistry().updateName(player);
+        plugin.getInventoryScanner().addPlayer(player);
+        plugin.getTablistManager().addPlayer(player);
+        
         // Timer fortsetzen wenn Challenge aktiv
         plugin.getTimerManager().checkAutoResume();
         
         // Spieler zur BossBar hinzufügen
         if (plugin.getTimerManager().isActive()) {
-            plugin.getProgressBar().addPlayer(player);
+            plugin.getFrameRenderer().addBossBarViewer(player);
             
             // Info über laufende Challenge
             int found = plugin.getItemManager().getFoundCount();
@@ -50,10 +55,16 @@ public class PlayerConnectionListener implements Listener {
     
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getInventoryScanner().removePlayer(event.getPlayer());
+        plugin.getTablistManager().removePlayer(event.getPlayer());
+        plugin.getFrameRenderer().removeBossBarViewer(event.getPlayer());
+        
         // Prüfen ob Timer pausiert werden muss
-        // Das muss einen Tick später passieren, da der Spieler noch in der Liste ist
-        plugin.runTaskLater(() -> {
-            plugin.getTimerManager().checkAutoPause();
+        // Das muss einen Tick später passieren, da der Spieler noch in der Liste ist -
+        // pausiert wird aber mit dem Zeitpunkt des Verlassens
+        long quitNanos = System.nanoTime();
+        plugin.getSchedulerFacade().runGlobalLater(() -> {
+            plugin.getTimerManager().checkAutoPause(quitNanos);
         }, 1L);
     }
 }
@@ -1,19 +1,19 @@
 package de.b3ncloud.itemhunter.managers;
 
 import de.b3ncloud.itemhunter.ItemHunter;
-import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
+import de.b3ncloud.itemhunter.catalog.NameTable;
+import de.b3ncloud.itemhunter.catalog.TargetCatalog;
+import de.b3ncloud.itemhunter.persistence.ProgressJournal;
+import de.b3ncloud.itemhunter.progress.PlayerRegistry;
+import de.b3ncloud.itemhunter.progress.ProgressState;
 import org.bukkit.NamespacedKey;
-import org.bukkit.Sound;
 import org.bukkit.advancement.Advancement;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Verwaltet alle Achievements/Advancements die erreicht werden müssen
@@ -22,14 +22,11 @@ public class AchievementManager {
 
     private final ItemHunter plugin;
     
-    // Alle Advancements die erreicht werden müssen
-    private Set<NamespacedKey> requiredAdvancements = new LinkedHashSet<>();
+    // Katalog dessen Advancement-Positionen als Index in state dienen
+    private volatile TargetCatalog catalog;
     
-    // Bereits erreichte Advancements
-    private Set<NamespacedKey> completedAdvancements = new LinkedHashSet<>();
-    
-    // Wer hat welches Achievement erreicht?
-    private Map<NamespacedKey, String> achievementCompleter = new HashMap<>();
+    // Required-/Completed-Bitmaps über die Katalog-Position, Completer als Spieler-ID
+    private volatile ProgressState state;
     
     private File progressFile;
     private FileConfiguration progressConfig;
@@ -42,229 +39,186 @@ public class AchievementManager {
     }
     
     public void initializeAdvancements() {
-        completedAdvancements.clear();
-        achievementCompleter.clear();
         initializeRequiredAdvancements();
     }
     
     private void initializeRequiredAdvancements() {
-        requiredAdvancements.clear();
-        
-        Iterator<Advancement> iterator = Bukkit.advancementIterator();
-        while (iterator.hasNext()) {
-            Advancement advancement = iterator.next();
-            if (isValidAdvancement(advancement)) {
-                requiredAdvancements.add(advancement.getKey());
-            }
+        // Gefilterte Advancements aus dem Ziel-Katalog - jedes ist benötigt
+        catalog = plugin.getCatalog();
+        List<NamespacedKey> advancements = catalog.getAdvancements();
+        int size = advancements.size();
+        if (state == null || state.getCapacity() != size) {
+            state = new ProgressState(size);
         }
         
-        plugin.getLogger().info("Achievements initialisiert: " + requiredAdvancements.size() + " Advancements");
-    }
-    
-    private boolean isValidAdvancement(Advancement advancement) {
-        String key = advancement.getKey().toString();
-        
-        // Keine Root-Advancements (die "Tab"-Einträge)
-        if (key.endsWith("/root")) return false;
-        
-        // Keine Rezept-Advancements
-        if (key.contains("recipes/")) return false;
-        
-        // Keine technischen Advancements
-        if (key.startsWith("minecraft:technical/")) return false;
+        // Anzeige-Reihenfolge der GUIs: nach Key (Katalog kann sich bei /start ändern)
+        state.setSortOrder(catalog.getAdvancementNames().getSortOrder());
         
-        // Muss einen Display haben (sichtbar im Advancement-Screen)
-        // Leider kann man das in der Bukkit API nicht direkt prüfen
-        // Wir filtern nach bekannten Kategorien
-        if (!key.startsWith("minecraft:story/") &&
-            !key.startsWith("minecraft:nether/") &&
-            !key.startsWith("minecraft:end/") &&
-            !key.startsWith("minecraft:adventure/") &&
-            !key.startsWith("minecraft:husbandry/")) {
-            return false;
+        state.clearRequired();
+        for (int i = 0; i < size; i++) {
+            state.setRequired(i);
         }
         
-        return true;
+        plugin.getLogger().info("Achievements initialisiert: " + state.getRequiredCount() + " Advancements");
     }
     
     // ============ ACHIEVEMENT ERREICHEN ============
     
     public boolean completeAdvancement(Player player, Advancement advancement) {
-        NamespacedKey key = advancement.getKey();
-        
-        if (!requiredAdvancements.contains(key)) return false;
-        if (completedAdvancements.contains(key)) return false;
-        
-        completedAdvancements.add(key);
-        achievementCompleter.put(key, player.getName());
-        
-        // Fortschritt
-        int completed = completedAdvancements.size();
-        int total = requiredAdvancements.size();
-        double progress = (double) completed / total * 100;
+        int index = catalog.indexOfAdvancement(advancement.getKey());
+        if (!state.isPending(index)) return false;
         
-        String advName = formatAdvancementName(key);
-        
-        Bukkit.broadcastMessage("");
-        Bukkit.broadcastMessage(plugin.getPrefix() + ChatColor.LIGHT_PURPLE + "★ " + ChatColor.WHITE + player.getName() + 
-                ChatColor.GRAY + " hat " + ChatColor.GOLD + advName + ChatColor.GRAY + " erreicht!");
-        Bukkit.broadcastMessage(plugin.getPrefix() + ChatColor.GRAY + "Achievements: " + 
-                ChatColor.LIGHT_PURPLE + completed + ChatColor.GRAY + "/" + ChatColor.WHITE + total + 
-                ChatColor.YELLOW + " (" + String.format("%.1f", progress) + "%)");
-        Bukkit.broadcastMessage("");
-        
-        // Sound
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            p.playSound(p.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 0.3f, 1.5f);
-        }
+        // Nur einreihen - Zustand, Journal und Nachricht übernimmt der ProgressApplier im nächsten Tick
+        plugin.getProgressApplier().submit(ProgressJournal.KIND_ADVANCEMENT, index, player);
+        return true;
+    }
+    
+    /**
+     * Übernimmt ein eingereihtes Advancement (nur über den ProgressApplier)
+     */
+    public void applyCompleted(int index, int playerId, long elapsedMillis) {
+        List<NamespacedKey> advancements = catalog.getAdvancements();
+        if (index < 0 || index >= advancements.size()) return;
+        if (!state.markFound(index, playerId, elapsedMillis)) return;
         
-        // Challenge prüfen
-        plugin.checkChallengeComplete();
-        plugin.updateBossBar();
+        PlayerRegistry registry = plugin.getPlayerRegistry();
+        plugin.getJournal().recordFound(ProgressJournal.KIND_ADVANCEMENT, index, registry.uuidOf(playerId),
+                registry.nameOf(playerId), elapsedMillis);
+        plugin.getTimeline().record(ProgressJournal.KIND_ADVANCEMENT, index, playerId, elapsedMillis,
+                System.currentTimeMillis(), false);
         
-        return true;
+        // Nachricht, Sound, Challenge-Prüfung und BossBar gesammelt nach dem Abarbeiten
+        plugin.getAnnouncementManager().announceAdvancement(registry.nameOf(playerId),
+                catalog.getAdvancementNames().getName(index));
     }
     
     // ============ GETTER ============
     
     public int getTotalAdvancements() {
-        return requiredAdvancements.size();
+        return state.getRequiredCount();
     }
     
     public int getCompletedCount() {
-        return completedAdvancements.size();
+        return state.getFoundCount();
     }
     
     public int getRemainingCount() {
-        return requiredAdvancements.size() - completedAdvancements.size();
+        return state.getRemainingCount();
     }
     
     public Set<NamespacedKey> getCompletedAdvancements() {
-        return new LinkedHashSet<>(completedAdvancements);
+        List<NamespacedKey> advancements = catalog.getAdvancements();
+        Set<NamespacedKey> completed = new LinkedHashSet<>();
+        for (int ordinal : state.getFoundOrder()) {
+            completed.add(advancements.get(ordinal));
+        }
+        return completed;
     }
     
     public Set<NamespacedKey> getRemainingAdvancements() {
-        Set<NamespacedKey> remaining = new LinkedHashSet<>(requiredAdvancements);
-        remaining.removeAll(completedAdvancements);
+        List<NamespacedKey> advancements = catalog.getAdvancements();
+        Set<NamespacedKey> remaining = new LinkedHashSet<>();
+        for (int i = state.nextRemaining(0); i >= 0; i = state.nextRemaining(i + 1)) {
+            remaining.add(advancements.get(i));
+        }
         return remaining;
     }
     
     public List<NamespacedKey> getRemainingAdvancementsSorted() {
-        return getRemainingAdvancements().stream()
-                .sorted(Comparator.comparing(NamespacedKey::toString))
-                .collect(Collectors.toList());
+        return getRemainingAdvancementsPage(0, state.getRemainingCount());
+    }
+    
+    /**
+     * Eine Seite der offenen Advancements (nach Key sortiert)
+     */
+    public List<NamespacedKey> getRemainingAdvancementsPage(int from, int count) {
+        List<NamespacedKey> advancements = catalog.getAdvancements();
+        int[] indices = state.getRemainingSorted(from, count);
+        List<NamespacedKey> page = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            page.add(advancements.get(index));
+        }
+        return page;
     }
     
     public String getAdvancementCompleter(NamespacedKey key) {
-        return achievementCompleter.getOrDefault(key, "Unbekannt");
+        return plugin.getPlayerRegistry().nameOf(getAdvancementCompleterId(key));
+    }
+    
+    /**
+     * Spieler-ID des Completers, oder PlayerRegistry.NO_PLAYER
+     */
+    public int getAdvancementCompleterId(NamespacedKey key) {
+        return state.getFinder(catalog.indexOfAdvancement(key));
+    }
+    
+    /**
+     * Timer-Millisekunden zum Zeitpunkt des Erreichens
+     */
+    public long getAdvancementMillis(NamespacedKey key) {
+        return state.getFoundMillis(catalog.indexOfAdvancement(key));
     }
     
     public boolean isRequired(NamespacedKey key) {
-        return requiredAdvancements.contains(key);
+        return state.isRequired(catalog.indexOfAdvancement(key));
     }
     
     public boolean isCompleted(NamespacedKey key) {
-        return completedAdvancements.contains(key);
+        return state.isFound(catalog.indexOfAdvancement(key));
     }
     
     // ============ RESET ============
     
     public void reset() {
-        completedAdvancements.clear();
-        achievementCompleter.clear();
-        
-        if (progressFile.exists()) {
-            progressFile.delete();
-        }
+        state.clearFound();
     }
     
-    // ============ SPEICHERN & LADEN ============
-    
-    public void saveProgress() {
-        progressConfig = new YamlConfiguration();
-        
-        List<String> completedList = completedAdvancements.stream()
-                .map(NamespacedKey::toString)
-                .collect(Collectors.toList());
-        progressConfig.set("completed-advancements", completedList);
-        
-        for (Map.Entry<NamespacedKey, String> entry : achievementCompleter.entrySet()) {
-            String safeKey = entry.getKey().toString().replace(":", "_");
-            progressConfig.set("completers." + safeKey, entry.getValue());
-        }
-        
-        try {
-            progressConfig.save(progressFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Konnte Achievement-Fortschritt nicht speichern!");
-        }
-    }
+    // ============ LADEN (Speichern: PersistenceService) ============
     
-    public void loadProgress() {
+    /**
+     * Migration: liest die alte achievements.yml (nur wenn noch keine progress.dat existiert)
+     */
+    public void loadLegacyProgress() {
         if (!progressFile.exists()) return;
         
         progressConfig = YamlConfiguration.loadConfiguration(progressFile);
         
+        // Alte Schlüssel unter "completers" sind per replace(":", "_") verstümmelt und nicht
+        // umkehrbar - deshalb über die verstümmelte Form des Advancements nachschlagen
         List<String> completedList = progressConfig.getStringList("completed-advancements");
         for (String keyStr : completedList) {
             try {
                 String[] parts = keyStr.split(":");
                 if (parts.length == 2) {
                     NamespacedKey key = new NamespacedKey(parts[0], parts[1]);
-                    if (requiredAdvancements.contains(key)) {
-                        completedAdvancements.add(key);
-                    }
+                    String completer = progressConfig.getString("completers." + keyStr.replace(":", "_"));
+                    state.markFound(catalog.indexOfAdvancement(key), plugin.getPlayerRegistry().idOfName(completer), 0);
                 }
             } catch (Exception e) {
                 // Ignorieren
             }
         }
         
-        if (progressConfig.contains("completers")) {
-            for (String safeKey : progressConfig.getConfigurationSection("completers").getKeys(false)) {
-                try {
-                    String keyStr = safeKey.replace("_", ":");
-                    String[] parts = keyStr.split(":");
-                    if (parts.length == 2) {
-                        NamespacedKey key = new NamespacedKey(parts[0], parts[1]);
-                        String completer = progressConfig.getString("completers." + safeKey);
-                        achievementCompleter.put(key, completer);
-                    }
-                } catch (Exception e) {
-                    // Ignorieren
-                }
-            }
-        }
-        
-        plugin.getLogger().info("Achievement-Fortschritt geladen: " + completedAdvancements.size() + "/" + requiredAdvancements.size());
+        plugin.getLogger().info("Achievement-Fortschritt geladen: " + state.getFoundCount() + "/" + state.getRequiredCount());
+    }
+    
+    /**
+     * Übernimmt ein Advancement aus Snapshot oder Journal (ohne Nachricht und ohne erneutes Journaling)
+     * @return false wenn es nicht benötigt wird oder schon erreicht ist
+     */
+    public boolean restoreCompleted(NamespacedKey key, int completerId, long elapsedMillis) {
+        return state.markFound(catalog.indexOfAdvancement(key), completerId, elapsedMillis);
     }
     
     // ============ HILFSMETHODEN ============
     
-    public static String formatAdvancementName(NamespacedKey key) {
-        // minecraft:story/mine_stone -> Mine Stone
-        String path = key.getKey();
-        if (path.contains("/")) {
-            path = path.substring(path.lastIndexOf("/") + 1);
-        }
-        
-        String name = path.replace("_", " ");
-        StringBuilder result = new StringBuilder();
-        boolean capitalizeNext = true;
-        
-        for (char c : name.toCharArray()) {
-            if (c == ' ') {
-                capitalizeNext = true;
-                result.append(c);
-            } else if (capitalizeNext) {
-                result.append(Character.toUpperCase(c));
-                capitalizeNext = false;
-            } else {
-                result.append(c);
-            }
-        }
-        
-        return result.toString();
+    /**
+     * Anzeigename aus der Namens-Tabelle des Katalogs (keine Allokation für Katalog-Advancements)
+     */
+    public String getAdvancementName(NamespacedKey key) {
+        TargetCatalog current = catalog;
+        int index = current.indexOfAdvancement(key);
+        return index >= 0 ? current.getAdvancementNames().getName(index) : NameTable.advancementName(key);
     }
     
     /**
@@ -0,0 +1,195 @@
+package de.b3ncloud.itemhunter.managers;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import net.md_5.bungee.api.chat.HoverEvent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.chat.hover.content.Text;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sammelt Funde, Kills und Advancements eines Ticks und verkündet sie gesammelt,
+ * sobald der ProgressApplier die Fortschritts-Queue des Ticks abgearbeitet hat.
+ * Ein einzelner Fund bekommt die gewohnte Nachricht, mehrere Funde eines Spielers
+ * (z.B. Shift-Klick aus einer Shulker-Kiste) eine Sammel-Nachricht mit Hover-Liste.
+ * Pro Flush gibt es nur einen Sound und eine BossBar-Aktualisierung.
+ */
+public class AnnouncementManager {
+
+    // Namen die direkt in der Sammel-Nachricht stehen, der Rest nur im Hover
+    private static final int INLINE_NAMES = 3;
+    
+    private enum Kind {
+        ITEM(ChatColor.GREEN, "✓", "Items", "gefunden", "Fortschritt"),
+        MOB(ChatColor.RED, "☠", "Mobs", "getötet", "Mobs"),
+        ADVANCEMENT(ChatColor.LIGHT_PURPLE, "★", "Achievements", "erreicht", "Achievements");
+        
+        private final ChatColor color;
+        private final String icon;
+        private final String plural;
+        private final String verb;
+        private final String progressLabel;
+        
+        Kind(ChatColor color, String icon, String plural, String verb, String progressLabel) {
+            this.color = color;
+            this.icon = icon;
+            this.plural = plural;
+            this.verb = verb;
+            this.progressLabel = progressLabel;
+        }
+    }
+    
+    private final ItemHunter plugin;
+    
+    // Ausstehende Namen pro Art und Spieler (Fund-Reihenfolge), geschützt über this
+    private final Map<Kind, Map<String, List<String>>> pending = new LinkedHashMap<>();
+    
+    public AnnouncementManager(ItemHunter plugin) {
+        this.plugin = plugin;
+    }
+    
+    // ============ SAMMELN ============
+    
+    public void announceItem(String playerName, String itemName) {
+        add(Kind.ITEM, playerName, itemName);
+    }
+    
+    public void announceMob(String playerName, String mobName) {
+        add(Kind.MOB, playerName, mobName);
+    }
+    
+    public void announceAdvancement(String playerName, String advancementName) {
+        add(Kind.ADVANCEMENT, playerName, advancementName);
+    }
+    
+    private synchronized void add(Kind kind, String playerName, String name) {
+        pending.computeIfAbsent(kind, k -> new LinkedHashMap<>())
+                .computeIfAbsent(playerName, k -> new ArrayList<>())
+                .add(name);
+    }
+    
+    // ============ VERKÜNDEN ============
+    
+    /**
+     * Verkündet alle gesammelten Funde (vom ProgressApplier einmal pro Tick aufgerufen)
+     */
+    public void flush() {
+        Map<Kind, Map<String, List<String>>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        
+        Bukkit.broadcastMessage("");
+        for (Map.Entry<Kind, Map<String, List<String>>> entry : batch.entrySet()) {
+            Kind kind = entry.getKey();
+            for (Map.Entry<String, List<String>> finds : entry.getValue().entrySet()) {
+                announce(kind, finds.getKey(), finds.getValue());
+            }
+            broadcastProgress(kind);
+        }
+        Bukkit.broadcastMessage("");
+        
+        playSound(batch);
+        
+        // Challenge prüfen (Items-Abschluss wie bisher über den ItemManager)
+        if (batch.containsKey(Kind.ITEM)) {
+            plugin.getItemManager().checkItemsComplete();
+        }
+        if (batch.containsKey(Kind.MOB) || batch.containsKey(Kind.ADVANCEMENT)) {
+            plugin.checkChallengeComplete();
+        }
+        plugin.getFrameRenderer().renderBossBar();
+    }
+    
+    private void announce(Kind kind, String player, List<String> names) {
+        String head = plugin.getPrefix() + kind.color + kind.icon + " " + ChatColor.WHITE + player + ChatColor.GRAY + " hat ";
+        
+        if (names.size() == 1) {
+            Bukkit.broadcastMessage(head + ChatColor.GOLD + names.get(0) + ChatColor.GRAY + " " + kind.verb + "!");
+            return;
+        }
+        
+        // Sammel-Nachricht: Anzahl + die ersten Namen, vollständige Liste im Hover
+        StringBuilder text = new StringBuilder(head)
+                .append(ChatColor.GOLD).append(names.size()).append(" ").append(kind.plural)
+                .append(ChatColor.GRAY).append(" ").append(kind.verb).append(": ");
+        StringBuilder hover = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            if (i < INLINE_NAMES) {
+                if (i > 0) text.append(ChatColor.GRAY).append(", ");
+                text.append(ChatColor.GOLD).append(names.get(i));
+            }
+            if (i > 0) hover.append("\n");
+            hover.append(kind.color).append("• ").append(ChatColor.WHITE).append(names.get(i));
+        }
+        if (names.size() > INLINE_NAMES) {
+            text.append(ChatColor.GRAY).append(" und ").append(names.size() - INLINE_NAMES).append(" weitere");
+        }
+        
+        TextComponent message = new TextComponent(TextComponent.fromLegacyText(text.toString()));
+        message.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                new Text(TextComponent.fromLegacyText(hover.toString()))));
+        Bukkit.spigot().broadcast(message);
+    }
+    
+    private void broadcastProgress(Kind kind) {
+        int done;
+        int total;
+        switch (kind) {
+            case ITEM:
+                done = plugin.getItemManager().getFoundCount();
+                total = plugin.getItemManager().getTotalItems();
+                break;
+            case MOB:
+                done = plugin.getMobManager().getKilledCount();
+                total = plugin.getMobManager().getTotalMobs();
+                break;
+            default:
+                done = plugin.getAchievementManager().getCompletedCount();
+                total = plugin.getAchievementManager().getTotalAdvancements();
+                break;
+        }
+        double progress = total > 0 ? (double) done / total * 100 : 100;
+        
+        Bukkit.broadcastMessage(plugin.getPrefix() + ChatColor.GRAY + kind.progressLabel + ": " +
+                kind.color + done + ChatColor.GRAY + "/" + ChatColor.WHITE + total +
+                ChatColor.YELLOW + " (" + String.format("%.1f", progress) + "%)");
+    }
+    
+    /**
+     * Ein Sound pro Flush - der auffälligste der enthaltenen Arten
+     */
+    private void playSound(Map<Kind, ?> batch) {
+        Sound sound;
+        float volume;
+        float pitch;
+        if (batch.containsKey(Kind.ADVANCEMENT)) {
+            sound = Sound.UI_TOAST_CHALLENGE_COMPLETE;
+            volume = 0.3f;
+            pitch = 1.5f;
+        } else if (batch.containsKey(Kind.ITEM)) {
+            sound = Sound.ENTITY_PLAYER_LEVELUP;
+            volume = 0.5f;
+            pitch = 1.5f;
+        } else {
+            sound = Sound.ENTITY_EXPERIENCE_ORB_PICKUP;
+            volume = 0.5f;
+            pitch = 1.0f;
+        }
+        
+        // Auf dem Thread des Spielers (Folia) - der Flush läuft auf dem globalen Thread
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            plugin.getSchedulerFacade().executeForEntity(p,
+                    () -> p.playSound(p.getLocation(), sound, volume, pitch));
+        }
+    }
+}
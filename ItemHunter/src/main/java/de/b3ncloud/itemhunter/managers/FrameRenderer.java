@@ -0,0 +1,256 @@
+package de.b3ncloud.itemhunter.managers;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Baut die gemeinsamen Anzeigen (ActionBar, BossBar, Fortschritts-Block der Tablist).
+ *
+ * Jede Anzeige merkt sich die Version des ProgressModel, aus der sie zuletzt gebaut wurde,
+ * und baut erst nach einer Änderung neu. Pakete gehen nur raus, wenn sich der Inhalt gegenüber
+ * dem zuletzt gesendeten unterscheidet (die ActionBar zusätzlich als Auffrischung, bevor sie ausblendet).
+ * Gerendert wird nur vom Main-Thread bzw. Global-Region-Thread, die BossBar-Zuschauer
+ * werden über Join/Quit/Start/Stop gepflegt (auf Folia vom Region-Thread des Spielers).
+ */
+public class FrameRenderer {
+
+    // Die ActionBar blendet nach etwa 3 Sekunden aus - unveränderten Inhalt spätestens so oft erneut senden
+    private static final int ACTIONBAR_REFRESH_FRAMES = 2;
+    
+    private final ItemHunter plugin;
+    private final ProgressModel model;
+    
+    // ActionBar: Fortschritts-Teil pro Version, fertige Komponente pro Version + Sekunde
+    private long actionBarVersion = -1;
+    private String actionBarProgress;
+    private long actionBarSecond = -1;
+    private TextComponent actionBar;
+    private int actionBarAge = 0;
+    
+    // BossBar: zuletzt gesetzte Werte
+    private long bossBarVersion = -1;
+    private String bossBarTitle;
+    private double bossBarProgress = -1;
+    private BarColor bossBarColor;
+    
+    // Zuschauer der BossBar - ersetzt den Abgleich über getPlayers(), das jedes Mal kopiert
+    private final Set<UUID> bossBarViewers = ConcurrentHashMap.newKeySet();
+    
+    // Tablist: Fortschritts-Block pro Version
+    private long tablistVersion = -1;
+    private String tablistProgress;
+    
+    public FrameRenderer(ItemHunter plugin) {
+        this.plugin = plugin;
+        this.model = plugin.getProgressModel();
+    }
+    
+    // ============ ACTIONBAR ============
+    
+    /**
+     * Sendet die ActionBar an alle Spieler (jede Sekunde), eine Komponente für alle
+     */
+    public void renderActionBar() {
+        long version = model.getVersion();
+        if (version != actionBarVersion) {
+            ProgressModel.Totals totals = model.getTotals();
+            actionBarProgress = ChatColor.DARK_GRAY + " │ " +
+                    ChatColor.GREEN + "📦" + totals.getItems() +
+                    ChatColor.DARK_GRAY + " │ " +
+                    ChatColor.RED + "☠" + totals.getMobs() +
+                    ChatColor.DARK_GRAY + " │ " +
+                    ChatColor.LIGHT_PURPLE + "★" + totals.getAdvancements() +
+                    ChatColor.DARK_GRAY + " │ " +
+                    ChatColor.YELLOW + String.format("%.1f", totals.getProgress() * 100) + "%";
+            actionBarVersion = totals.getVersion();
+            actionBar = null;
+        }
+        
+        TimerManager timer = plugin.getTimerManager();
+        long second = timer.getElapsedSeconds();
+        if (actionBar != null && second == actionBarSecond && ++actionBarAge < ACTIONBAR_REFRESH_FRAMES) return;
+        
+        if (actionBar == null || second != actionBarSecond) {
+            actionBar = new TextComponent(ChatColor.GOLD + "⏱ " + ChatColor.WHITE + timer.getFormattedTime() + actionBarProgress);
+            actionBarSecond = second;
+        }
+        actionBarAge = 0;
+        
+        // Senden auf dem Thread des Spielers (Folia), auf Bukkit direkt
+        TextComponent frame = actionBar;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            plugin.getSchedulerFacade().executeForEntity(player,
+                    () -> player.spigot().sendMessage(ChatMessageType.ACTION_BAR, frame));
+        }
+    }
+    
+    // ============ BOSSBAR ============
+    
+    /**
+     * Aktualisiert die BossBar - Titel, Fortschritt und Farbe nur nach einer Änderung
+     */
+    public void renderBossBar() {
+        BossBar bar = plugin.getProgressBar();
+        if (!plugin.isShowProgressBossbar() || !plugin.getTimerManager().isRunning()) {
+            if (bar.isVisible()) {
+                bar.setVisible(false);
+            }
+            return;
+        }
+        
+        long version = model.getVersion();
+        if (version != bossBarVersion) {
+            ProgressModel.Totals totals = model.getTotals();
+            double progress = totals.getProgress();
+            
+            String title = ChatColor.GOLD + "🎯 Challenge: " +
+                    ChatColor.GREEN + "📦" + totals.getItems() + "/" + totals.getTotalItems() + " " +
+                    ChatColor.RED + "☠" + totals.getMobs() + "/" + totals.getTotalMobs() + " " +
+                    ChatColor.LIGHT_PURPLE + "★" + totals.getAdvancements() + "/" + totals.getTotalAdvancements() + " " +
+                    ChatColor.YELLOW + "(" + String.format("%.1f", progress * 100) + "%)";
+            if (!title.equals(bossBarTitle)) {
+                bar.setTitle(title);
+                bossBarTitle = title;
+            }
+            
+            double clamped = Math.min(1.0, progress);
+            if (clamped != bossBarProgress) {
+                bar.setProgress(clamped);
+                bossBarProgress = clamped;
+            }
+            
+            // Farbe je nach Fortschritt
+            BarColor color;
+            if (progress >= 0.75) {
+                color = BarColor.GREEN;
+            } else if (progress >= 0.5) {
+                color = BarColor.YELLOW;
+            } else if (progress >= 0.25) {
+                color = BarColor.PINK;
+            } else {
+                color = BarColor.RED;
+            }
+            if (color != bossBarColor) {
+                bar.setColor(color);
+                bossBarColor = color;
+            }
+            
+            bossBarVersion = totals.getVersion();
+        }
+        
+        if (!bar.isVisible()) {
+            bar.setVisible(true);
+        }
+    }
+    
+    /**
+     * Zeigt einem Spieler die BossBar (Join, Start) - nur beim ersten Mal ein Paket
+     */
+    public void addBossBarViewer(Player player) {
+        if (bossBarViewers.add(player.getUniqueId())) {
+            plugin.getProgressBar().addPlayer(player);
+        }
+    }
+    
+    /**
+     * Entfernt einen Spieler aus der BossBar (Quit)
+     */
+    public void removeBossBarViewer(Player player) {
+        if (bossBarViewers.remove(player.getUniqueId())) {
+            plugin.getProgressBar().removePlayer(player);
+        }
+    }
+    
+    /**
+     * Alle Online-Spieler als Zuschauer (Challenge-Start, Plugin-Reload mit laufender Challenge)
+     */
+    public void addAllBossBarViewers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            addBossBarViewer(player);
+        }
+    }
+    
+    /**
+     * Entfernt alle Zuschauer (Stop, Reset, Abschluss)
+     */
+    public void clearBossBarViewers() {
+        bossBarViewers.clear();
+        plugin.getProgressBar().removeAll();
+    }
+    
+    // ============ TABLIST ============
+    
+    /**
+     * Fortschritts-Block der Tablist (Items, Mobs, Achievements, Gesamt), für alle Spieler gleich
+     */
+    public String getTablistProgress() {
+        long version = model.getVersion();
+        if (version == tablistVersion) return tablistProgress;
+        
+        ProgressModel.Totals totals = model.getTotals();
+        StringBuilder block = new StringBuilder(256);
+        appendCategory(block, ChatColor.GREEN + "📦 Items: ", totals.getItems(), totals.getTotalItems());
+        appendCategory(block, ChatColor.RED + "☠ Mobs: ", totals.getMobs(), totals.getTotalMobs());
+        appendCategory(block, ChatColor.LIGHT_PURPLE + "★ Achievements: ", totals.getAdvancements(), totals.getTotalAdvancements());
+        
+        // Gesamtfortschritt
+        double totalProgress = totals.getProgress() * 100;
+        block.append("\n");
+        block.append(ChatColor.GOLD).append("Gesamt: ");
+        block.append(getProgressBar(totalProgress, 20));
+        block.append(ChatColor.YELLOW).append(" ").append(String.format("%.1f", totalProgress)).append("%");
+        
+        tablistProgress = block.toString();
+        tablistVersion = totals.getVersion();
+        return tablistProgress;
+    }
+    
+    private void appendCategory(StringBuilder block, String label, int found, int total) {
+        double progress = total > 0 ? (double) found / total * 100 : 0;
+        block.append(label);
+        block.append(ChatColor.WHITE).append(found).append("/").append(total);
+        block.append(ChatColor.GRAY).append(" (").append(String.format("%.0f", progress)).append("%)\n");
+    }
+    
+    /**
+     * Erstellt einen Fortschrittsbalken
+     */
+    private String getProgressBar(double percentage, int length) {
+        int filled = (int) (percentage / 100 * length);
+        int empty = length - filled;
+        
+        StringBuilder bar = new StringBuilder();
+        bar.append(ChatColor.DARK_GRAY).append("[");
+        
+        for (int i = 0; i < filled; i++) {
+            if (percentage >= 75) {
+                bar.append(ChatColor.GREEN);
+            } else if (percentage >= 50) {
+                bar.append(ChatColor.YELLOW);
+            } else if (percentage >= 25) {
+                bar.append(ChatColor.GOLD);
+            } else {
+                bar.append(ChatColor.RED);
+            }
+            bar.append("█");
+        }
+        
+        bar.append(ChatColor.GRAY);
+        for (int i = 0; i < empty; i++) {
+            bar.append("░");
+        }
+        
+        bar.append(ChatColor.DARK_GRAY).append("]");
+        return bar.toString();
+    }
+}
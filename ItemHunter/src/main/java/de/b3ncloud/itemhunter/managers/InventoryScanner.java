@@ -0,0 +1,124 @@
+package de.b3ncloud.itemhunter.managers;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gleicht Spieler-Inventare im Hintergrund mit der Found-Bitmap ab.
+ *
+ * Fängt alle Wege ab, die kein Listener sieht (Ofen-Ausgabe, Handel, Schmiedetisch, Brauen,
+ * Eimer, /give, Trichter, Drag-Events, ...). Pro Tick werden höchstens players-per-tick
+ * Spieler im Round-Robin gescannt und nach budget-micros abgebrochen, die Kosten pro Tick
+ * bleiben also unabhängig von der Spielerzahl. Auf Folia läuft jeder Scan über den
+ * Entity-Scheduler des Spielers (Region-Thread des Spielers).
+ */
+public class InventoryScanner {
+
+    private final ItemHunter plugin;
+    
+    private final boolean enabled;
+    private final int playersPerTick;
+    private final long budgetNanos;
+    
+    // Online-Spieler in Join-Reihenfolge (über Join/Quit gepflegt, kein Kopieren pro Tick)
+    private final List<Player> players = new ArrayList<>();
+    private int cursor = 0;
+    
+    public InventoryScanner(ItemHunter plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfig().getBoolean("inventory-scan.enabled", true);
+        this.playersPerTick = Math.max(1, plugin.getConfig().getInt("inventory-scan.players-per-tick", 2));
+        this.budgetNanos = Math.max(1, plugin.getConfig().getLong("inventory-scan.budget-micros", 500)) * 1000L;
+    }
+    
+    /**
+     * Startet den Scan-Task (jeden Tick)
+     */
+    public void start() {
+        if (!enabled) return;
+        
+        // Spieler die schon online sind (Reload)
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            addPlayer(player);
+        }
+        
+        plugin.getSchedulerFacade().runGlobalTimer(this::tick, 1L, 1L);
+    }
+    
+    // ============ SPIELER-LISTE ============
+    
+    public synchronized void addPlayer(Player player) {
+        if (!players.contains(player)) {
+            players.add(player);
+        }
+    }
+    
+    public synchronized void removePlayer(Player player) {
+        int index = players.indexOf(player);
+        if (index < 0) return;
+        
+        players.remove(index);
+        if (index < cursor) {
+            cursor--;
+        }
+    }
+    
+    // ============ SCAN ============
+    
+    private void tick() {
+        if (!plugin.getTimerManager().isRunning()) return;
+        
+        long start = System.nanoTime();
+        int scanned = 0;
+        
+        while (scanned < playersPerTick) {
+            Player player;
+            synchronized (this) {
+                if (scanned >= players.size()) return;
+                if (cursor >= players.size()) cursor = 0;
+                player = players.get(cursor++);
+            }
+            scanned++;
+            
+            if (plugin.isFolia()) {
+                // Folia: das Inventar gehört dem Region-Thread des Spielers
+                plugin.getSchedulerFacade().runForEntity(player, () -> scan(player));
+            } else {
+                scan(player);
+                if (System.nanoTime() - start >= budgetNanos) return;
+            }
+        }
+    }
+    
+    /**
+     * Prüft alle Slots und das Cursor-Item eines Spielers gegen die Found-Bitmap
+     */
+    private void scan(Player player) {
+        if (!player.isOnline() || !plugin.getTimerManager().isRunning()) return;
+        
+        ItemManager itemManager = plugin.getItemManager();
+        PlayerInventory inventory = player.getInventory();
+        
+        // getItem statt getContents: kein Kopieren des ganzen Arrays
+        for (int slot = 0, size = inventory.getSize(); slot < size; slot++) {
+            check(itemManager, player, inventory.getItem(slot));
+        }
+        check(itemManager, player, player.getItemOnCursor());
+    }
+    
+    private void check(ItemManager itemManager, Player player, ItemStack stack) {
+        if (stack == null) return;
+        
+        Material material = stack.getType();
+        if (itemManager.isPending(material)) {
+            itemManager.foundItem(player, material);
+        }
+    }
+}
@@ -1,34 +1,28 @@
 package de.b3ncloud.itemhunter.managers;
 
 import de.b3ncloud.itemhunter.ItemHunter;
-import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
-import org.bukkit.Sound;
+import de.b3ncloud.itemhunter.persistence.ProgressJournal;
+import de.b3ncloud.itemhunter.progress.PlayerRegistry;
+import de.b3ncloud.itemhunter.progress.ProgressState;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Verwaltet alle Mobs die getötet werden müssen
  */
 public class MobManager {
 
-    private final ItemHunter plugin;
-    
-    // Alle Mobs die getötet werden müssen
-    private Set<EntityType> requiredMobs = new LinkedHashSet<>();
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
     
-    // Bereits getötete Mobs
-    private Set<EntityType> killedMobs = new LinkedHashSet<>();
+    private final ItemHunter plugin;
     
-    // Wer hat welchen Mob getötet?
-    private Map<EntityType, String> mobKiller = new HashMap<>();
+    // Required-/Killed-Bitmaps über EntityType.ordinal(), Killer als Spieler-ID
+    private final ProgressState state = new ProgressState(ENTITY_TYPES.length);
     
     private File progressFile;
     private FileConfiguration progressConfig;
@@ -37,166 +31,138 @@ public class MobManager {
         this.plugin = plugin;
         this.progressFile = new File(plugin.getDataFolder(), "mobs.yml");
         
+        // Anzeige-Reihenfolge der GUIs: nach EntityType-Name (vorberechnet in der Namens-Tabelle)
+        state.setSortOrder(plugin.getCatalog().getMobNames().getSortOrder());
+        
         initializeRequiredMobs();
     }
     
     public void initializeMobs() {
-        killedMobs.clear();
-        mobKiller.clear();
         initializeRequiredMobs();
     }
     
     private void initializeRequiredMobs() {
-        requiredMobs.clear();
+        // Leert auch die Kills - der einzige Reset beim (Neu-)Initialisieren
+        state.clearRequired();
         
-        for (EntityType type : EntityType.values()) {
-            if (isValidMob(type)) {
-                requiredMobs.add(type);
-            }
+        // Gefilterte Mobs aus dem Ziel-Katalog
+        for (EntityType type : plugin.getCatalog().getMobs()) {
+            state.setRequired(type.ordinal());
         }
         
-        plugin.getLogger().info("Mobs initialisiert: " + requiredMobs.size() + " Mobs");
-    }
-    
-    private boolean isValidMob(EntityType type) {
-        // Muss ein lebendiges Wesen sein
-        if (!type.isAlive()) return false;
-        
-        // Muss spawnable sein
-        if (!type.isSpawnable()) return false;
-        
-        String name = type.name();
-        
-        // ============ SPIELER & MARKER ============
-        if (type == EntityType.PLAYER) return false;
-        if (name.equals("MARKER") || name.equals("INTERACTION")) return false;
-        
-        // ============ TECHNISCHE ENTITIES ============
-        if (name.equals("ARMOR_STAND")) return false;
-        if (name.equals("GIANT")) return false; // Nicht natürlich spawnbar
-        if (name.equals("ILLUSIONER")) return false; // Nicht natürlich spawnbar
-        if (name.equals("ZOMBIE_HORSE")) return false; // Nicht natürlich spawnbar
-        
-        // ============ NPC-ARTIGE ============
-        // Villager und Wandering Trader sind OK - man kann sie töten
-        
-        // ============ BOSS-MOBS ============
-        // Ender Dragon und Wither sind OK - gehören zur Challenge
-        
-        return true;
+        plugin.getLogger().info("Mobs initialisiert: " + state.getRequiredCount() + " Mobs");
     }
     
     // ============ MOB TÖTEN ============
     
     public boolean killedMob(Player player, EntityType type) {
-        if (!requiredMobs.contains(type)) return false;
-        if (killedMobs.contains(type)) return false;
-        
-        killedMobs.add(type);
-        mobKiller.put(type, player.getName());
-        
-        // Fortschritt
-        int killed = killedMobs.size();
-        int total = requiredMobs.size();
-        double progress = (double) killed / total * 100;
-        
-        String mobName = formatMobName(type);
+        if (!state.isPending(type.ordinal())) return false;
         
-        Bukkit.broadcastMessage("");
-        Bukkit.broadcastMessage(plugin.getPrefix() + ChatColor.RED + "☠ " + ChatColor.WHITE + player.getName() + 
-                ChatColor.GRAY + " hat " + ChatColor.GOLD + mobName + ChatColor.GRAY + " getötet!");
-        Bukkit.broadcastMessage(plugin.getPrefix() + ChatColor.GRAY + "Mobs: " + 
-                ChatColor.RED + killed + ChatColor.GRAY + "/" + ChatColor.WHITE + total + 
-                ChatColor.YELLOW + " (" + String.format("%.1f", progress) + "%)");
-        Bukkit.broadcastMessage("");
-        
-        // Sound
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            p.playSound(p.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.5f, 1.0f);
-        }
+        // Nur einreihen - Zustand, Journal und Nachricht übernimmt der ProgressApplier im nächsten Tick
+        plugin.getProgressApplier().submit(ProgressJournal.KIND_MOB, type.ordinal(), player);
+        return true;
+    }
+    
+    /**
+     * Übernimmt einen eingereihten Kill (nur über den ProgressApplier)
+     */
+    public void applyKilled(int ordinal, int playerId, long elapsedMillis) {
+        if (!state.markFound(ordinal, playerId, elapsedMillis)) return;
         
-        // Challenge prüfen
-        plugin.checkChallengeComplete();
-        plugin.updateBossBar();
+        PlayerRegistry registry = plugin.getPlayerRegistry();
+        plugin.getJournal().recordFound(ProgressJournal.KIND_MOB, ordinal, registry.uuidOf(playerId),
+                registry.nameOf(playerId), elapsedMillis);
+        plugin.getTimeline().record(ProgressJournal.KIND_MOB, ordinal, playerId, elapsedMillis,
+                System.currentTimeMillis(), false);
         
-        return true;
+        // Nachricht, Sound, Challenge-Prüfung und BossBar gesammelt nach dem Abarbeiten
+        plugin.getAnnouncementManager().announceMob(registry.nameOf(playerId), getMobName(ordinal));
     }
     
     // ============ GETTER ============
     
     public int getTotalMobs() {
-        return requiredMobs.size();
+        return state.getRequiredCount();
     }
     
     public int getKilledCount() {
-        return killedMobs.size();
+        return state.getFoundCount();
     }
     
     public int getRemainingCount() {
-        return requiredMobs.size() - killedMobs.size();
+        return state.getRemainingCount();
     }
     
     public Set<EntityType> getKilledMobs() {
-        return new LinkedHashSet<>(killedMobs);
+        Set<EntityType> killed = new LinkedHashSet<>();
+        for (int ordinal : state.getFoundOrder()) {
+            killed.add(ENTITY_TYPES[ordinal]);
+        }
+        return killed;
     }
     
     public Set<EntityType> getRemainingMobs() {
-        Set<EntityType> remaining = new LinkedHashSet<>(requiredMobs);
-        remaining.removeAll(killedMobs);
+        Set<EntityType> remaining = new LinkedHashSet<>();
+        for (int o = state.nextRemaining(0); o >= 0; o = state.nextRemaining(o + 1)) {
+            remaining.add(ENTITY_TYPES[o]);
+        }
         return remaining;
     }
     
     public List<EntityType> getRemainingMobsSorted() {
-        return getRemainingMobs().stream()
-                .sorted(Comparator.comparing(EntityType::name))
-                .collect(Collectors.toList());
+        return getRemainingMobsPage(0, state.getRemainingCount());
+    }
+    
+    /**
+     * Eine Seite der offenen Mobs (nach Name sortiert)
+     */
+    public List<EntityType> getRemainingMobsPage(int from, int count) {
+        int[] ordinals = state.getRemainingSorted(from, count);
+        List<EntityType> page = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            page.add(ENTITY_TYPES[ordinal]);
+        }
+        return page;
     }
     
     public String getMobKiller(EntityType type) {
-        return mobKiller.getOrDefault(type, "Unbekannt");
+        return plugin.getPlayerRegistry().nameOf(state.getFinder(type.ordinal()));
+    }
+    
+    /**
+     * Spieler-ID des Killers, oder PlayerRegistry.NO_PLAYER
+     */
+    public int getMobKillerId(EntityType type) {
+        return state.getFinder(type.ordinal());
+    }
+    
+    /**
+     * Timer-Millisekunden zum Zeitpunkt des Kills
+     */
+    public long getMobKillMillis(EntityType type) {
+        return state.getFoundMillis(type.ordinal());
     }
     
     public boolean isRequired(EntityType type) {
-        return requiredMobs.contains(type);
+        return state.isRequired(type.ordinal());
     }
     
     public boolean isKilled(EntityType type) {
-        return killedMobs.contains(type);
+        return state.isFound(type.ordinal());
     }
     
     // ============ RESET ============
     
     public void reset() {
-        killedMobs.clear();
-        mobKiller.clear();
-        
-        if (progressFile.exists()) {
-            progressFile.delete();
-        }
+        state.clearFound();
     }
     
-    // ============ SPEICHERN & LADEN ============
-    
-    public void saveProgress() {
-        progressConfig = new YamlConfiguration();
-        
-        List<String> killedList = killedMobs.stream()
-                .map(EntityType::name)
-                .collect(Collectors.toList());
-        progressConfig.set("killed-mobs", killedList);
-        
-        for (Map.Entry<EntityType, String> entry : mobKiller.entrySet()) {
-            progressConfig.set("killers." + entry.getKey().name(), entry.getValue());
-        }
-        
-        try {
-            progressConfig.save(progressFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Konnte Mob-Fortschritt nicht speichern!");
-        }
-    }
+    // ============ LADEN (Speichern: PersistenceService) ============
     
-    public void loadProgress() {
+    /**
+     * Migration: liest die alte mobs.yml (nur wenn noch keine progress.dat existiert)
+     */
+    public void loadLegacyProgress() {
         if (!progressFile.exists()) return;
         
         progressConfig = YamlConfiguration.loadConfiguration(progressFile);
@@ -205,48 +171,34 @@ public class MobManager {
         for (String mobName : killedList) {
             try {
                 EntityType type = EntityType.valueOf(mobName);
-                if (requiredMobs.contains(type)) {
-                    killedMobs.add(type);
-                }
+                String killer = progressConfig.getString("killers." + mobName);
+                state.markFound(type.ordinal(), plugin.getPlayerRegistry().idOfName(killer), 0);
             } catch (IllegalArgumentException e) {
                 // Ignorieren
             }
         }
         
-        if (progressConfig.contains("killers")) {
-            for (String key : progressConfig.getConfigurationSection("killers").getKeys(false)) {
-                try {
-                    EntityType type = EntityType.valueOf(key);
-                    String killer = progressConfig.getString("killers." + key);
-                    mobKiller.put(type, killer);
-                } catch (IllegalArgumentException e) {
-                    // Ignorieren
-                }
-            }
-        }
-        
-        plugin.getLogger().info("Mob-Fortschritt geladen: " + killedMobs.size() + "/" + requiredMobs.size());
+        plugin.getLogger().info("Mob-Fortschritt geladen: " + state.getFoundCount() + "/" + state.getRequiredCount());
+    }
+    
+    /**
+     * Übernimmt einen Kill aus Snapshot oder Journal (ohne Nachricht und ohne erneutes Journaling)
+     * @return false wenn der Mob nicht benötigt wird oder schon getötet ist
+     */
+    public boolean restoreKilled(EntityType type, int killerId, long elapsedMillis) {
+        return state.markFound(type.ordinal(), killerId, elapsedMillis);
     }
     
     // ============ HILFSMETHODEN ============
     
-    public static String formatMobName(EntityType type) {
-        String name = type.name().toLowerCase().replace("_", " ");
-        StringBuilder result = new StringBuilder();
-        boolean capitalizeNext = true;
-        
-        for (char c : name.toCharArray()) {
-            if (c == ' ') {
-                capitalizeNext = true;
-                result.append(c);
-            } else if (capitalizeNext) {
-                result.append(Character.toUpperCase(c));
-                capitalizeNext = false;
-            } else {
-                result.append(c);
-            }
-        }
-        
-        return result.toString();
+    /**
+     * Anzeigename aus der Namens-Tabelle des Katalogs (keine Allokation)
+     */
+    public String getMobName(EntityType type) {
+        return getMobName(type.ordinal());
+    }
+    
+    private String getMobName(int ordinal) {
+        return plugin.getCatalog().getMobNames().getName(ordinal);
     }
 }
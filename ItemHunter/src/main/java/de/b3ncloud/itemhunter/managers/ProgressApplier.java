@@ -0,0 +1,132 @@
+package de.b3ncloud.itemhunter.managers;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import de.b3ncloud.itemhunter.persistence.ProgressJournal;
+import de.b3ncloud.itemhunter.progress.ProgressEventQueue;
+import org.bukkit.entity.Player;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Einziger Konsument der Fortschritts-Events.
+ *
+ * Die Manager reihen Funde nur ein (konstante Kosten im Listener), hier werden sie einmal pro
+ * Tick auf dem Main-Thread bzw. Global-Region-Thread in Ankunfts-Reihenfolge übernommen:
+ * Zustand, Journal, Nachrichten, Sound, BossBar und Abschluss-Prüfung an einer Stelle.
+ */
+public class ProgressApplier implements ProgressEventQueue.Handler {
+
+    /**
+     * Fund, der bei vollem Puffer nicht mehr in die Queue gepasst hat
+     */
+    private static final class Overflow {
+        private final byte kind;
+        private final int target;
+        private final int playerId;
+        private final long elapsedMillis;
+        
+        private Overflow(byte kind, int target, int playerId, long elapsedMillis) {
+            this.kind = kind;
+            this.target = target;
+            this.playerId = playerId;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+    
+    private final ItemHunter plugin;
+    private final ProgressEventQueue queue;
+    
+    // Überlauf (nur bei vollem Puffer, alloziert dann pro Fund) - wird ebenfalls nur vom Konsumenten übernommen.
+    // Höchstens ein Eintrag pro Ziel (Art + Ziel in overflowTargets): jedes Ziel kann nur einmal gewonnen
+    // werden, spätere Meldungen desselben Ziels wären ohnehin verworfen. Damit ist der Überlauf durch die
+    // Anzahl der Ziele begrenzt, ohne dass ein Fund verloren geht (Advancements werden nicht erneut gemeldet)
+    private final Queue<Overflow> overflow = new ConcurrentLinkedQueue<>();
+    private final Set<Long> overflowTargets = ConcurrentHashMap.newKeySet();
+    
+    // Warnung bei vollem Puffer nur einmal ausgeben
+    private final AtomicBoolean overflowWarned = new AtomicBoolean();
+    
+    public ProgressApplier(ItemHunter plugin) {
+        this.plugin = plugin;
+        this.queue = new ProgressEventQueue(plugin.getConfig().getInt("progress-queue.capacity", 4096));
+    }
+    
+    /**
+     * Startet das Abarbeiten der Queue (jeden Tick)
+     */
+    public void start() {
+        plugin.getSchedulerFacade().runGlobalTimer(this::drain, 1L, 1L);
+    }
+    
+    // ============ EINREIHEN ============
+    
+    /**
+     * Reiht einen Fund ein (von beliebigen Threads)
+     */
+    public void submit(byte kind, int target, Player player) {
+        int playerId = plugin.getPlayerRegistry().idOf(player);
+        long elapsedMillis = plugin.getTimerManager().getElapsedMillis();
+        if (queue.offer(kind, target, playerId, elapsedMillis)) return;
+        
+        // Puffer voll: in den Überlauf statt den Fund zu verlieren - übernommen wird trotzdem nur
+        // auf dem Konsumenten-Thread (Ankündigungen, Timeline und Journal-Reihenfolge)
+        if (overflowWarned.compareAndSet(false, true)) {
+            plugin.getLogger().warning("Fortschritts-Queue voll (" + queue.getCapacity()
+                    + ") - weitere Funde laufen über den Überlauf. progress-queue.capacity erhöhen?");
+        }
+        if (overflowTargets.add(overflowKey(kind, target))) {
+            overflow.add(new Overflow(kind, target, playerId, elapsedMillis));
+        }
+    }
+    
+    private static long overflowKey(byte kind, int target) {
+        return ((long) kind << 32) | (target & 0xFFFFFFFFL);
+    }
+    
+    // ============ ABARBEITEN ============
+    
+    /**
+     * Übernimmt sofort alles Eingereihte und verkündet es (beim Deaktivieren, vor dem letzten Speichern)
+     */
+    public void drainNow() {
+        drain();
+    }
+    
+    private void drain() {
+        queue.drain(this);
+        
+        // Überlauf danach: seine Funde kamen nach allem, was beim Überlaufen im Puffer stand
+        Overflow event;
+        while ((event = overflow.poll()) != null) {
+            overflowTargets.remove(overflowKey(event.kind, event.target));
+            onEvent(event.kind, event.target, event.playerId, event.elapsedMillis);
+        }
+        
+        // Alles was dieser Tick gebracht hat gesammelt verkünden
+        plugin.getAnnouncementManager().flush();
+    }
+    
+    @Override
+    public void onEvent(byte kind, int target, int playerId, long elapsedMillis) {
+        switch (kind) {
+            case ProgressJournal.KIND_ITEM:
+                plugin.getItemManager().applyFound(target, playerId, elapsedMillis);
+                break;
+            case ProgressJournal.KIND_MOB:
+                plugin.getMobManager().applyKilled(target, playerId, elapsedMillis);
+                break;
+            case ProgressJournal.KIND_ADVANCEMENT:
+                plugin.getAchievementManager().applyCompleted(target, playerId, elapsedMillis);
+                break;
+            default:
+                return;
+        }
+        
+        // Anzeigen bauen beim nächsten Frame neu
+        plugin.getProgressModel().changed();
+    }
+}
@@ -0,0 +1,139 @@
+package de.b3ncloud.itemhunter.managers;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zentraler Fortschritts-Stand für die Anzeigen.
+ *
+ * Jede Änderung (Fund, Skip, Timer-Übergang, Reset, Import) erhöht die Version.
+ * Anzeigen merken sich die Version ihres letzten Aufbaus und bauen nur neu, wenn sie sich
+ * geändert hat - ohne Funde kostet eine Sekunde damit praktisch nichts.
+ */
+public class ProgressModel {
+
+    /**
+     * Unveränderliche Zählerstände zu einer Version
+     */
+    public static final class Totals {
+        private final long version;
+        private final int items;
+        private final int totalItems;
+        private final int mobs;
+        private final int totalMobs;
+        private final int advancements;
+        private final int totalAdvancements;
+        
+        private Totals(long version, int items, int totalItems, int mobs, int totalMobs,
+                       int advancements, int totalAdvancements) {
+            this.version = version;
+            this.items = items;
+            this.totalItems = totalItems;
+            this.mobs = mobs;
+            this.totalMobs = totalMobs;
+            this.advancements = advancements;
+            this.totalAdvancements = totalAdvancements;
+        }
+        
+        public long getVersion() {
+            return version;
+        }
+        
+        public int getItems() {
+            return items;
+        }
+        
+        public int getTotalItems() {
+            return totalItems;
+        }
+        
+        public int getMobs() {
+            return mobs;
+        }
+        
+        public int getTotalMobs() {
+            return totalMobs;
+        }
+        
+        public int getAdvancements() {
+            return advancements;
+        }
+        
+        public int getTotalAdvancements() {
+            return totalAdvancements;
+        }
+        
+        public int getFound() {
+            return items + mobs + advancements;
+        }
+        
+        public int getRequired() {
+            return totalItems + totalMobs + totalAdvancements;
+        }
+        
+        /**
+         * Gesamtfortschritt 0.0 - 1.0
+         */
+        public double getProgress() {
+            int required = getRequired();
+            return required > 0 ? (double) getFound() / required : 0;
+        }
+    }
+    
+    private final ItemHunter plugin;
+    private final AtomicLong version = new AtomicLong();
+    
+    // Zuletzt berechnete Zählerstände (mit ihrer Version)
+    private volatile Totals totals;
+    
+    // Spieler mit den meisten Item-Funden und die Version, zu der er bestimmt wurde
+    private volatile UUID topFinder;
+    private volatile long topFinderVersion = -1;
+    
+    public ProgressModel(ItemHunter plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Markiert den Stand als geändert (von beliebigen Threads)
+     */
+    public void changed() {
+        version.incrementAndGet();
+    }
+    
+    public long getVersion() {
+        return version.get();
+    }
+    
+    /**
+     * Zählerstände der aktuellen Version, nur nach einer Änderung neu gezählt
+     */
+    public Totals getTotals() {
+        // Version vor den Zählern lesen: eine gleichzeitige Änderung führt höchstens zu einem weiteren Aufbau
+        long current = version.get();
+        Totals cached = totals;
+        if (cached != null && cached.version == current) return cached;
+        
+        cached = new Totals(current,
+                plugin.getItemManager().getFoundCount(), plugin.getItemManager().getTotalItems(),
+                plugin.getMobManager().getKilledCount(), plugin.getMobManager().getTotalMobs(),
+                plugin.getAchievementManager().getCompletedCount(), plugin.getAchievementManager().getTotalAdvancements());
+        totals = cached;
+        return cached;
+    }
+    
+    /**
+     * Spieler mit den meisten Item-Funden (null ohne Funde), nur nach einer Änderung neu gezählt
+     */
+    public UUID getTopFinder() {
+        long current = version.get();
+        if (topFinderVersion == current) return topFinder;
+        
+        UUID top = plugin.getItemManager().getTopFinder();
+        topFinder = top;
+        topFinderVersion = current;
+        return top;
+    }
+}
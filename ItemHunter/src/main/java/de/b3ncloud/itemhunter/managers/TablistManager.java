@@ -1,23 +1,82 @@
 package de.b3ncloud.itemhunter.managers;
 
 import de.b3ncloud.itemhunter.ItemHunter;
+import de.b3ncloud.itemhunter.perf.ServerProbe;
+import de.b3ncloud.itemhunter.perf.TickSampler;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.Team;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Verwaltet die Tablist mit TPS, Ping und Challenge-Fortschritt
+ * Verwaltet die Tablist mit TPS, MSPT, Ping und Challenge-Fortschritt.
+ *
+ * Der Header ist konstant und wird nur beim ersten Senden mitgeschickt. Der Footer besteht aus
+ * einem gemeinsamen Teil (einmal pro Sekunde gebaut) und dem Ping des Spielers; gesendet wird
+ * nur, wenn sich der Footer seit dem letzten Senden geändert hat. Die Spieler sind auf 20
+ * Buckets verteilt, pro Tick wird nur einer davon aktualisiert.
+ *
+ * Prefixe kommen aus vier festen Status-Teams statt einem Team pro Spieler. Wechsel werden
+ * gesammelt und einmal pro Tick übernommen - Team-Anzahl und Team-Pakete hängen damit nicht
+ * von der Spielerzahl ab.
  */
 public class TablistManager {
 
+    /**
+     * Status-Teams, die Team-Namen bestimmen auch die Reihenfolge in der Tablist
+     */
+    private enum TabStatus {
+        TOP_FINDER("ih_0top", ChatColor.GRAY + "[" + ChatColor.GOLD + "★" + ChatColor.GRAY + "] "),
+        ACTIVE("ih_1active", ChatColor.GRAY + "[" + ChatColor.GREEN + "✓" + ChatColor.GRAY + "] "),
+        IDLE("ih_2idle", ChatColor.GRAY + ""),
+        SPECTATOR("ih_3spectator", ChatColor.DARK_GRAY + "[Spec] ");
+        
+        private final String teamName;
+        private final String prefix;
+        
+        TabStatus(String teamName, String prefix) {
+            this.teamName = teamName;
+            this.prefix = prefix;
+        }
+    }
+    
+    private static final String TEAM_PREFIX = "ih_";
+    
+    private static final int BUCKETS = 20;
+    
+    private static final String HEADER = "\n"
+            + ChatColor.GOLD + "★ " + ChatColor.WHITE + ChatColor.BOLD + "HerrrBennn" + ChatColor.GOLD + " ★\n"
+            + ChatColor.GRAY + "Item Hunt Challenge\n"
+            + "\n";
+    
     private final ItemHunter plugin;
     private Scoreboard scoreboard;
     
+    // Spieler verteilt auf die Ticks einer Sekunde (über Join/Quit gepflegt)
+    private final List<List<Player>> buckets = new ArrayList<>(BUCKETS);
+    private int tick = 0;
+    
+    // Hash des zuletzt gesendeten Footers pro Spieler (fehlt = Header noch nicht gesendet)
+    private final Map<UUID, Integer> sentFooters = new ConcurrentHashMap<>();
+    
+    // Aktueller Status pro Spieler und noch nicht übernommene Team-Wechsel (Eintrag = Spielername)
+    private final Map<UUID, TabStatus> statuses = new ConcurrentHashMap<>();
+    private final Map<String, TabStatus> pendingTeams = new ConcurrentHashMap<>();
+    private final Set<String> pendingRemovals = ConcurrentHashMap.newKeySet();
+    
+    // Gemeinsamer Teil des Footers: [0] vor und [1] nach dem Ping (wird nur ersetzt, nie verändert)
+    private volatile String[] sharedFooter;
+    
     // Folia-Support
     private boolean isFolia;
     
@@ -25,170 +84,144 @@ public class TablistManager {
         this.plugin = plugin;
         this.isFolia = plugin.isFolia();
         this.scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
+        
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.add(new ArrayList<>());
+        }
     }
     
     /**
-     * Aktualisiert die Tablist für alle Spieler
+     * Startet den Tablist-Task (jeden Tick ein Bucket)
      */
-    public void updateTablist() {
-        double tps = getTPS();
-        String tpsColor = getTpsColor(tps);
-        String tpsDisplay = tpsColor + String.format("%.1f", Math.min(20.0, tps));
+    public void start() {
+        removeLegacyTeams();
         
+        // Spieler die schon online sind (Reload)
         for (Player player : Bukkit.getOnlinePlayers()) {
-            updatePlayerTablist(player, tpsDisplay);
+            addPlayer(player);
         }
+        
+        plugin.getSchedulerFacade().runGlobalTimer(this::tick, 1L, 1L);
     }
     
+    // ============ SPIELER-LISTE ============
+    
     /**
-     * Aktualisiert die Tablist für einen einzelnen Spieler
+     * Fügt einen Spieler dem kleinsten Bucket hinzu
      */
-    public void updatePlayerTablist(Player player, String tpsDisplay) {
-        int ping = getPlayerPing(player);
-        String pingColor = getPingColor(ping);
-        
-        // Header
-        StringBuilder header = new StringBuilder();
-        header.append("\n");
-        header.append(ChatColor.GOLD).append("★ ").append(ChatColor.WHITE).append(ChatColor.BOLD).append("HerrrBennn").append(ChatColor.GOLD).append(" ★\n");
-        header.append(ChatColor.GRAY).append("Item Hunt Challenge\n");
-        header.append("\n");
-        
-        // Footer mit Stats
-        StringBuilder footer = new StringBuilder();
-        footer.append("\n");
-        
-        // TPS & Ping Zeile
-        footer.append(ChatColor.GRAY).append("TPS: ").append(tpsDisplay);
-        footer.append(ChatColor.DARK_GRAY).append(" │ ");
-        footer.append(ChatColor.GRAY).append("Ping: ").append(pingColor).append(ping).append("ms");
-        footer.append("\n\n");
-        
-        // Challenge-Fortschritt wenn aktiv
-        if (plugin.getTimerManager().isActive()) {
-            String time = plugin.getTimerManager().getFormattedTime();
-            boolean paused = plugin.getTimerManager().isPaused();
-            
-            footer.append(ChatColor.AQUA).append("⏱ ").append(ChatColor.WHITE).append(time);
-            if (paused) {
-                footer.append(ChatColor.RED).append(" (PAUSIERT)");
+    public synchronized void addPlayer(Player player) {
+        setPlayerTabName(player);
+        
+        List<Player> smallest = buckets.get(0);
+        for (List<Player> bucket : buckets) {
+            if (bucket.contains(player)) return;
+            if (bucket.size() < smallest.size()) {
+                smallest = bucket;
             }
-            footer.append("\n\n");
-            
-            // Items
-            int foundItems = plugin.getItemManager().getFoundCount();
-            int totalItems = plugin.getItemManager().getTotalItems();
-            double itemProgress = totalItems > 0 ? (double) foundItems / totalItems * 100 : 0;
-            footer.append(ChatColor.GREEN).append("📦 Items: ");
-            footer.append(ChatColor.WHITE).append(foundItems).append("/").append(totalItems);
-            footer.append(ChatColor.GRAY).append(" (").append(String.format("%.0f", itemProgress)).append("%)\n");
-            
-            // Mobs
-            int killedMobs = plugin.getMobManager().getKilledCount();
-            int totalMobs = plugin.getMobManager().getTotalMobs();
-            double mobProgress = totalMobs > 0 ? (double) killedMobs / totalMobs * 100 : 0;
-            footer.append(ChatColor.RED).append("☠ Mobs: ");
-            footer.append(ChatColor.WHITE).append(killedMobs).append("/").append(totalMobs);
-            footer.append(ChatColor.GRAY).append(" (").append(String.format("%.0f", mobProgress)).append("%)\n");
-            
-            // Achievements
-            int completedAdv = plugin.getAchievementManager().getCompletedCount();
-            int totalAdv = plugin.getAchievementManager().getTotalAdvancements();
-            double advProgress = totalAdv > 0 ? (double) completedAdv / totalAdv * 100 : 0;
-            footer.append(ChatColor.LIGHT_PURPLE).append("★ Achievements: ");
-            footer.append(ChatColor.WHITE).append(completedAdv).append("/").append(totalAdv);
-            footer.append(ChatColor.GRAY).append(" (").append(String.format("%.0f", advProgress)).append("%)\n");
-            
-            // Gesamtfortschritt
-            int totalFound = foundItems + killedMobs + completedAdv;
-            int totalRequired = totalItems + totalMobs + totalAdv;
-            double totalProgress = totalRequired > 0 ? (double) totalFound / totalRequired * 100 : 0;
-            footer.append("\n");
-            footer.append(ChatColor.GOLD).append("Gesamt: ");
-            footer.append(getProgressBar(totalProgress, 20));
-            footer.append(ChatColor.YELLOW).append(" ").append(String.format("%.1f", totalProgress)).append("%");
-        } else {
-            footer.append(ChatColor.GRAY).append("Keine Challenge aktiv\n");
-            footer.append(ChatColor.GRAY).append("Starte mit ").append(ChatColor.WHITE).append("/itemhunt start");
         }
+        smallest.add(player);
+    }
+    
+    public synchronized void removePlayer(Player player) {
+        for (List<Player> bucket : buckets) {
+            bucket.remove(player);
+        }
+        sentFooters.remove(player.getUniqueId());
+        removePlayerTabName(player);
+    }
+    
+    // ============ AKTUALISIEREN ============
+    
+    private void tick() {
+        flushTeams();
+        
+        int slot = tick;
+        tick = (tick + 1) % BUCKETS;
+        boolean running = plugin.getTimerManager().isRunning();
         
-        footer.append("\n");
+        // Gemeinsamer Teil einmal pro Sekunde, danach arbeiten die übrigen Buckets damit
+        if (running && (slot == 0 || sharedFooter == null)) {
+            buildSharedFooter();
+        }
+        
+        Player[] players;
+        synchronized (this) {
+            List<Player> bucket = buckets.get(slot);
+            if (bucket.isEmpty()) return;
+            players = bucket.toArray(new Player[0]);
+        }
         
-        player.setPlayerListHeaderFooter(header.toString(), footer.toString());
+        // Status, Ping und Senden auf dem Thread des Spielers (Folia), auf Bukkit direkt
+        for (Player player : players) {
+            plugin.getSchedulerFacade().executeForEntity(player, () -> {
+                setPlayerTabName(player);
+                if (running) {
+                    updatePlayerTablist(player);
+                }
+            });
+        }
     }
     
     /**
-     * Erstellt einen Fortschrittsbalken
+     * Baut TPS-/MSPT-Anzeige und Challenge-Block, die für alle Spieler gleich sind
      */
-    private String getProgressBar(double percentage, int length) {
-        int filled = (int) (percentage / 100 * length);
-        int empty = length - filled;
-        
-        StringBuilder bar = new StringBuilder();
-        bar.append(ChatColor.DARK_GRAY).append("[");
-        
-        for (int i = 0; i < filled; i++) {
-            if (percentage >= 75) {
-                bar.append(ChatColor.GREEN);
-            } else if (percentage >= 50) {
-                bar.append(ChatColor.YELLOW);
-            } else if (percentage >= 25) {
-                bar.append(ChatColor.GOLD);
-            } else {
-                bar.append(ChatColor.RED);
-            }
-            bar.append("█");
-        }
+    private void buildSharedFooter() {
+        ServerProbe probe = plugin.getServerProbe();
+        double tps = probe.getTps();
+        String display = getTpsColor(tps) + String.format("%.1f", Math.min(20.0, tps));
         
-        bar.append(ChatColor.GRAY);
-        for (int i = 0; i < empty; i++) {
-            bar.append("░");
+        // Eigene Messung der letzten 5 Sekunden: Durchschnitt und Ausreißer (p99)
+        TickSampler sampler = plugin.getTickSampler();
+        TickSampler.Stats ticks = sampler.getStats(TickSampler.WINDOW_5S);
+        if (ticks != null) {
+            boolean duration = sampler.isTickDuration();
+            display += ChatColor.DARK_GRAY + " │ " + ChatColor.GRAY + (duration ? "MSPT: " : "Tick: ")
+                    + getTickColor(ticks.getMean(), duration) + String.format("%.1f", ticks.getMean())
+                    + ChatColor.GRAY + " (p99 " + getTickColor(ticks.getP99(), duration) + String.format("%.1f", ticks.getP99())
+                    + ChatColor.GRAY + ")";
         }
         
-        bar.append(ChatColor.DARK_GRAY).append("]");
-        return bar.toString();
+        sharedFooter = new String[] {
+                "\n" + ChatColor.GRAY + "TPS: " + display + ChatColor.DARK_GRAY + " │ " + ChatColor.GRAY + "Ping: ",
+                "\n\n" + buildChallengeBlock() + "\n"
+        };
     }
     
     /**
-     * Holt die Server-TPS
+     * Aktualisiert die Tablist für einen einzelnen Spieler, sendet nur wenn sich der Footer geändert hat
      */
-    private double getTPS() {
-        try {
-            // Paper/Folia haben eine direkte Methode
-            Method getTPSMethod = Bukkit.class.getMethod("getTPS");
-            double[] tps = (double[]) getTPSMethod.invoke(null);
-            return tps[0]; // 1-Minuten TPS
-        } catch (Exception e) {
-            // Fallback für Spigot
-            try {
-                Object server = Bukkit.getServer().getClass().getMethod("getServer").invoke(Bukkit.getServer());
-                Field tpsField = server.getClass().getField("recentTps");
-                double[] tps = (double[]) tpsField.get(server);
-                return tps[0];
-            } catch (Exception e2) {
-                return 20.0; // Fallback
-            }
+    public void updatePlayerTablist(Player player) {
+        if (!player.isOnline()) return;
+        
+        String[] shared = sharedFooter;
+        int ping = plugin.getServerProbe().getPing(player);
+        String footer = shared[0] + getPingColor(ping) + ping + "ms" + shared[1];
+        
+        Integer sent = sentFooters.put(player.getUniqueId(), footer.hashCode());
+        if (sent == null) {
+            player.setPlayerListHeaderFooter(HEADER, footer);
+        } else if (sent != footer.hashCode()) {
+            player.setPlayerListFooter(footer);
         }
     }
     
     /**
-     * Holt den Ping eines Spielers
+     * Challenge-Teil des Footers: Zeit (jede Sekunde) und Fortschritt (aus dem FrameRenderer, nur nach Änderungen neu)
      */
-    private int getPlayerPing(Player player) {
-        try {
-            // Paper hat getPing() direkt
-            Method getPingMethod = player.getClass().getMethod("getPing");
-            return (int) getPingMethod.invoke(player);
-        } catch (Exception e) {
-            // Fallback via Reflection
-            try {
-                Object handle = player.getClass().getMethod("getHandle").invoke(player);
-                Field pingField = handle.getClass().getField("ping");
-                return pingField.getInt(handle);
-            } catch (Exception e2) {
-                return 0;
-            }
+    private String buildChallengeBlock() {
+        if (!plugin.getTimerManager().isActive()) {
+            return ChatColor.GRAY + "Keine Challenge aktiv\n" +
+                    ChatColor.GRAY + "Starte mit " + ChatColor.WHITE + "/itemhunt start";
+        }
+        
+        StringBuilder block = new StringBuilder(320);
+        block.append(ChatColor.AQUA).append("⏱ ").append(ChatColor.WHITE).append(plugin.getTimerManager().getFormattedTime());
+        if (plugin.getTimerManager().isPaused()) {
+            block.append(ChatColor.RED).append(" (PAUSIERT)");
         }
+        block.append("\n\n");
+        block.append(plugin.getFrameRenderer().getTablistProgress());
+        return block.toString();
     }
     
     /**
@@ -201,6 +234,18 @@ public class TablistManager {
         return ChatColor.RED.toString();
     }
     
+    /**
+     * Gibt die Farbe basierend auf der Tick-Zeit zurück
+     * (MSPT: 50 ms = volles Tick-Budget, Tick-Abstand: gesund sind 50 ms)
+     */
+    private String getTickColor(double millis, boolean duration) {
+        double offset = duration ? 0 : 30;
+        if (millis <= 25 + offset) return ChatColor.GREEN.toString();
+        if (millis <= 40 + offset) return ChatColor.YELLOW.toString();
+        if (millis <= 50 + offset) return ChatColor.GOLD.toString();
+        return ChatColor.RED.toString();
+    }
+    
     /**
      * Gibt die Farbe basierend auf Ping zurück
      */
@@ -211,41 +256,90 @@ public class TablistManager {
         return ChatColor.RED.toString();
     }
     
+    // ============ STATUS-TEAMS ============
+    
     /**
-     * Setzt den Tablist-Namen eines Spielers mit Prefix/Suffix
+     * Bestimmt den Status eines Spielers und merkt einen Team-Wechsel für den nächsten Tick vor
      */
     public void setPlayerTabName(Player player) {
-        // Optional: Team-basierte Namen für Prefixes
-        String teamName = "ih_" + player.getName().substring(0, Math.min(12, player.getName().length()));
+        TabStatus status = getStatus(player);
+        if (statuses.put(player.getUniqueId(), status) == status) return;
         
-        Team team = scoreboard.getTeam(teamName);
-        if (team == null) {
-            team = scoreboard.registerNewTeam(teamName);
-        }
+        pendingRemovals.remove(player.getName());
+        pendingTeams.put(player.getName(), status);
+    }
+    
+    /**
+     * Merkt das Entfernen eines Spielers aus seinem Status-Team für den nächsten Tick vor
+     */
+    public void removePlayerTabName(Player player) {
+        statuses.remove(player.getUniqueId());
+        pendingTeams.remove(player.getName());
+        pendingRemovals.add(player.getName());
+    }
+    
+    private TabStatus getStatus(Player player) {
+        if (player.getGameMode() == GameMode.SPECTATOR) return TabStatus.SPECTATOR;
+        if (!plugin.getTimerManager().isRunning()) return TabStatus.IDLE;
+        if (player.getUniqueId().equals(plugin.getProgressModel().getTopFinder())) return TabStatus.TOP_FINDER;
+        return TabStatus.ACTIVE;
+    }
+    
+    /**
+     * Übernimmt alle vorgemerkten Team-Wechsel (einmal pro Tick)
+     */
+    private void flushTeams() {
+        if (pendingTeams.isEmpty() && pendingRemovals.isEmpty()) return;
         
-        // Prefix mit Status
-        if (plugin.getTimerManager().isActive()) {
-            team.setPrefix(ChatColor.GRAY + "[" + ChatColor.GREEN + "✓" + ChatColor.GRAY + "] ");
-        } else {
-            team.setPrefix(ChatColor.GRAY + "");
+        for (Iterator<String> it = pendingRemovals.iterator(); it.hasNext(); ) {
+            String entry = it.next();
+            it.remove();
+            Team team = scoreboard.getEntryTeam(entry);
+            if (team != null && team.getName().startsWith(TEAM_PREFIX)) {
+                team.removeEntry(entry);
+            }
         }
         
-        if (!team.hasEntry(player.getName())) {
-            team.addEntry(player.getName());
+        for (Map.Entry<String, TabStatus> change : pendingTeams.entrySet()) {
+            // Inzwischen erneut geändert: im nächsten Tick mit dem neuen Status
+            if (!pendingTeams.remove(change.getKey(), change.getValue())) continue;
+            
+            // addEntry nimmt den Spieler dabei aus seinem bisherigen Team
+            Team team = getTeam(change.getValue());
+            if (!team.hasEntry(change.getKey())) {
+                team.addEntry(change.getKey());
+            }
+        }
+    }
+    
+    private Team getTeam(TabStatus status) {
+        Team team = scoreboard.getTeam(status.teamName);
+        if (team == null) {
+            team = scoreboard.registerNewTeam(status.teamName);
+            team.setPrefix(status.prefix);
         }
+        return team;
     }
     
     /**
-     * Entfernt einen Spieler aus dem Tablist-Team
+     * Entfernt die alten ih_<name>-Teams (ein Team pro Spieler) aus dem Haupt-Scoreboard
      */
-    public void removePlayerTabName(Player player) {
-        String teamName = "ih_" + player.getName().substring(0, Math.min(12, player.getName().length()));
-        Team team = scoreboard.getTeam(teamName);
-        if (team != null) {
-            team.removeEntry(player.getName());
-            if (team.getEntries().isEmpty()) {
-                team.unregister();
-            }
+    private void removeLegacyTeams() {
+        int removed = 0;
+        for (Team team : scoreboard.getTeams()) {
+            if (!team.getName().startsWith(TEAM_PREFIX) || isStatusTeam(team.getName())) continue;
+            team.unregister();
+            removed++;
+        }
+        if (removed > 0) {
+            plugin.getLogger().info(removed + " alte Tablist-Teams entfernt");
+        }
+    }
+    
+    private boolean isStatusTeam(String name) {
+        for (TabStatus status : TabStatus.values()) {
+            if (status.teamName.equals(name)) return true;
         }
+        return false;
     }
 }
@@ -1,6 +1,8 @@
 package de.b3ncloud.itemhunter.managers;
 
 import de.b3ncloud.itemhunter.ItemHunter;
+import de.b3ncloud.itemhunter.persistence.ProgressJournal;
+import de.b3ncloud.itemhunter.persistence.TimerCheckpoint;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Sound;
@@ -9,22 +11,54 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 
 import java.io.File;
-import java.io.IOException;
 
 /**
  * Verwaltet den Timer der Challenge
  * Pausiert automatisch wenn keine Spieler online sind
+ *
+ * Die Zeit wird über System.nanoTime() gemessen: abgeschlossene Abschnitte (Start/Fortsetzen
+ * bis Pause/Stop) werden aufsummiert, der laufende Abschnitt beim Lesen dazugerechnet.
+ * Lag und Scheduler-Drift verändern die Challenge-Zeit dadurch nicht, der Sekunden-Task
+ * liest die Uhr nur noch für die Anzeige.
+ * Zwischen den Journal-Checkpoints hält eine memory-mapped timer.ckpt den Stand sekundengenau fest.
+ * Geändert wird die Uhr unter this, gelesen ohne Lock über einen unveränderlichen Clock-Stand,
+ * da jeder Fund von jedem Region-Thread die Zeit abfragt.
  */
 public class TimerManager {
 
+    /**
+     * Unveränderlicher Stand der Uhr, nach jeder Änderung neu veröffentlicht
+     */
+    private static final class Clock {
+        private final long accumulatedNanos;
+        private final long segmentStartNanos;
+        private final boolean ticking;
+        
+        private Clock(long accumulatedNanos, long segmentStartNanos, boolean ticking) {
+            this.accumulatedNanos = accumulatedNanos;
+            this.segmentStartNanos = segmentStartNanos;
+            this.ticking = ticking;
+        }
+    }
+
     private final ItemHunter plugin;
     
     // Timer Status
-    private boolean running = false;
-    private boolean paused = false;
+    private volatile boolean running = false;
+    private volatile boolean paused = false;
+    
+    // Summe der abgeschlossenen Abschnitte und Beginn des laufenden Abschnitts (geschützt über this)
+    private long accumulatedNanos = 0;
+    private long segmentStartNanos = 0;
+    
+    // Lesestand für getElapsedNanos() ohne Lock
+    private volatile Clock clock = new Clock(0, 0, false);
     
-    // Zeit in Sekunden
-    private long elapsedSeconds = 0;
+    // Minute des letzten Journal-Checkpoints
+    private long lastCheckpointMinute = 0;
+    
+    // Sekündlicher Stand für Absturz-Wiederherstellung
+    private final TimerCheckpoint checkpointFile;
     
     private File timerFile;
     private FileConfiguration timerConfig;
@@ -32,6 +66,8 @@ public class TimerManager {
     public TimerManager(ItemHunter plugin) {
         this.plugin = plugin;
         this.timerFile = new File(plugin.getDataFolder(), "timer.yml");
+        this.checkpointFile = new TimerCheckpoint(new File(plugin.getDataFolder(), "timer.ckpt"), plugin.getLogger());
+        this.checkpointFile.open();
     }
     
     // ============ TIMER KONTROLLE ============
@@ -41,9 +77,15 @@ public class TimerManager {
             return;
         }
         
-        running = true;
-        paused = false;
-        elapsedSeconds = 0;
+        synchronized (this) {
+            running = true;
+            paused = false;
+            accumulatedNanos = 0;
+            segmentStartNanos = System.nanoTime();
+            lastCheckpointMinute = 0;
+            publishClock();
+        }
+        journal(ProgressJournal.TIMER_START);
         
         // Challenge starten Nachricht
         Bukkit.broadcastMessage("");
@@ -56,22 +98,29 @@ public class TimerManager {
         Bukkit.broadcastMessage(ChatColor.GOLD + "═══════════════════════════════════════════");
         Bukkit.broadcastMessage("");
         
-        // Sound
+        // Sound (auf dem Thread des Spielers)
         for (Player player : Bukkit.getOnlinePlayers()) {
-            player.playSound(player.getLocation(), Sound.ENTITY_ENDER_DRAGON_GROWL, 0.5f, 1.0f);
-            player.sendTitle(
-                    ChatColor.GOLD + "🎯 ITEM HUNT 🎯",
-                    ChatColor.WHITE + "Finde alle Items!",
-                    10, 60, 20
-            );
+            plugin.getSchedulerFacade().executeForEntity(player, () -> {
+                player.playSound(player.getLocation(), Sound.ENTITY_ENDER_DRAGON_GROWL, 0.5f, 1.0f);
+                player.sendTitle(
+                        ChatColor.GOLD + "🎯 ITEM HUNT 🎯",
+                        ChatColor.WHITE + "Finde alle Items!",
+                        10, 60, 20
+                );
+            });
         }
         
-        plugin.updateBossBar();
+        plugin.getFrameRenderer().renderBossBar();
     }
     
     public void stop() {
-        running = false;
-        paused = false;
+        synchronized (this) {
+            pauseClock();
+            running = false;
+            paused = false;
+            publishClock();
+        }
+        journal(ProgressJournal.TIMER_STOP);
         
         plugin.getProgressBar().setVisible(false);
     }
@@ -79,54 +128,93 @@ public class TimerManager {
     public void pause() {
         if (!running || paused) return;
         
-        paused = true;
+        pauseClock();
+        journal(ProgressJournal.TIMER_PAUSE);
         
         Bukkit.broadcastMessage(plugin.getPrefix() + ChatColor.YELLOW + "⏸ Timer pausiert bei " + getFormattedTime());
         
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.5f);
-        }
+        playSound(Sound.BLOCK_NOTE_BLOCK_BASS, 0.5f);
     }
     
     public void resume() {
         if (!running || !paused) return;
         
-        paused = false;
+        resumeClock();
+        journal(ProgressJournal.TIMER_RESUME);
         
         Bukkit.broadcastMessage(plugin.getPrefix() + ChatColor.GREEN + "▶ Timer fortgesetzt! Aktuelle Zeit: " + getFormattedTime());
         
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
-        }
+        playSound(Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f);
     }
     
-    public void tick() {
-        if (!running || paused) return;
-        
-        elapsedSeconds++;
+    /**
+     * Sound für alle Spieler, jeweils auf dem Thread des Spielers (Folia)
+     */
+    private void playSound(Sound sound, float pitch) {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            plugin.getSchedulerFacade().executeForEntity(player,
+                    () -> player.playSound(player.getLocation(), sound, 1.0f, pitch));
+        }
     }
     
-    public void reset() {
+    public synchronized void reset() {
         running = false;
         paused = false;
-        elapsedSeconds = 0;
-        
-        // Timer-Datei löschen
-        if (timerFile.exists()) {
-            timerFile.delete();
-        }
+        accumulatedNanos = 0;
+        lastCheckpointMinute = 0;
+        publishClock();
+        saveCheckpoint();
+        plugin.getProgressModel().changed();
         
         plugin.getProgressBar().setVisible(false);
     }
     
+    // ============ UHR ============
+    
+    /**
+     * Schließt den laufenden Abschnitt ab (Zeitstempel genau beim Aufruf)
+     */
+    private void pauseClock() {
+        pauseClock(System.nanoTime());
+    }
+    
+    private synchronized void pauseClock(long nowNanos) {
+        if (running && !paused) {
+            accumulatedNanos += Math.max(0, nowNanos - segmentStartNanos);
+        }
+        paused = true;
+        publishClock();
+    }
+    
+    /**
+     * Beginnt einen neuen Abschnitt ab jetzt
+     */
+    private synchronized void resumeClock() {
+        segmentStartNanos = System.nanoTime();
+        paused = false;
+        publishClock();
+    }
+    
+    /**
+     * Veröffentlicht den aktuellen Stand für lock-freie Leser (nach jeder Änderung der Uhr)
+     */
+    private synchronized void publishClock() {
+        clock = new Clock(accumulatedNanos, segmentStartNanos, running && !paused);
+    }
+    
     // ============ AUTO PAUSE (keine Spieler online) ============
     
-    public void checkAutoPause() {
+    /**
+     * @param leftAtNanos System.nanoTime() beim Verlassen des Spielers (Prüfung läuft erst einen Tick später)
+     */
+    public void checkAutoPause(long leftAtNanos) {
         if (!running) return;
         
         if (Bukkit.getOnlinePlayers().isEmpty()) {
             if (!paused) {
-                paused = true;
+                // Grenze genau beim Verlassen des letzten Spielers
+                pauseClock(leftAtNanos);
+                journal(ProgressJournal.TIMER_PAUSE);
                 plugin.getLogger().info("Timer automatisch pausiert (keine Spieler online)");
             }
         }
@@ -136,11 +224,13 @@ public class TimerManager {
         if (!running) return;
         
         if (!Bukkit.getOnlinePlayers().isEmpty() && paused) {
-            paused = false;
+            resumeClock();
+            journal(ProgressJournal.TIMER_RESUME);
             plugin.getLogger().info("Timer automatisch fortgesetzt (Spieler online)");
             
+            String message = plugin.getPrefix() + ChatColor.GREEN + "▶ Timer fortgesetzt! Zeit: " + getFormattedTime();
             for (Player player : Bukkit.getOnlinePlayers()) {
-                player.sendMessage(plugin.getPrefix() + ChatColor.GREEN + "▶ Timer fortgesetzt! Zeit: " + getFormattedTime());
+                plugin.getSchedulerFacade().executeForEntity(player, () -> player.sendMessage(message));
             }
         }
     }
@@ -159,11 +249,30 @@ public class TimerManager {
         return running;
     }
     
+    /**
+     * Gemessene Challenge-Zeit in Nanosekunden (inklusive des laufenden Abschnitts)
+     */
+    public long getElapsedNanos() {
+        Clock current = clock;
+        if (current.ticking) {
+            return current.accumulatedNanos + (System.nanoTime() - current.segmentStartNanos);
+        }
+        return current.accumulatedNanos;
+    }
+    
     public long getElapsedSeconds() {
-        return elapsedSeconds;
+        return getElapsedNanos() / 1_000_000_000L;
+    }
+    
+    public long getElapsedMillis() {
+        return getElapsedNanos() / 1_000_000L;
     }
     
     public String getFormattedTime() {
+        return getFormattedTime(getElapsedSeconds());
+    }
+    
+    private static String getFormattedTime(long elapsedSeconds) {
         long hours = elapsedSeconds / 3600;
         long minutes = (elapsedSeconds % 3600) / 60;
         long seconds = elapsedSeconds % 60;
@@ -175,7 +284,22 @@ public class TimerManager {
         }
     }
     
+    /**
+     * Zeit mit Millisekunden für Ergebnisse (z.B. 01:23:45.678)
+     */
+    public String getPreciseTime() {
+        return formatPrecise(getElapsedMillis());
+    }
+    
+    /**
+     * Beliebige Challenge-Zeit in Millisekunden im Format von getPreciseTime
+     */
+    public static String formatPrecise(long elapsedMillis) {
+        return getFormattedTime(elapsedMillis / 1000L) + String.format(".%03d", elapsedMillis % 1000L);
+    }
+    
     public String getDetailedTime() {
+        long elapsedSeconds = getElapsedSeconds();
         long hours = elapsedSeconds / 3600;
         long minutes = (elapsedSeconds % 3600) / 60;
         long seconds = elapsedSeconds % 60;
@@ -192,35 +316,156 @@ public class TimerManager {
         return sb.toString();
     }
     
-    // ============ SPEICHERN & LADEN ============
+    // ============ JOURNAL ============
+    
+    /**
+     * Schreibt den aktuellen Stand als Checkpoint ins Journal
+     */
+    public void checkpoint() {
+        if (running) {
+            journal(ProgressJournal.TIMER_CHECKPOINT);
+        }
+    }
     
-    public void saveState() {
-        timerConfig = new YamlConfiguration();
+    /**
+     * Checkpoint sobald eine neue Minute Challenge-Zeit erreicht ist (vom Sekunden-Task aufgerufen)
+     */
+    public void checkpointIfDue() {
+        long minute = getElapsedSeconds() / 60;
+        if (minute == lastCheckpointMinute) return;
         
-        timerConfig.set("running", running);
-        timerConfig.set("paused", paused);
-        timerConfig.set("elapsed-seconds", elapsedSeconds);
+        lastCheckpointMinute = minute;
+        checkpoint();
+    }
+    
+    private void journal(byte transition) {
+        plugin.getJournal().recordTimer(transition, getElapsedMillis());
+        saveCheckpoint();
+        plugin.getProgressModel().changed();
+    }
+    
+    /**
+     * Übernimmt einen Timer-Übergang aus dem Journal (ohne Nachrichten)
+     */
+    public synchronized void restoreTransition(byte transition, long elapsedMillis) {
+        long nanos = elapsedMillis * 1_000_000L;
         
-        try {
-            timerConfig.save(timerFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Konnte Timer-Zustand nicht speichern!");
-            e.printStackTrace();
+        switch (transition) {
+            case ProgressJournal.TIMER_START:
+                running = true;
+                paused = false;
+                accumulatedNanos = 0;
+                lastCheckpointMinute = 0;
+                publishClock();
+                return;
+            case ProgressJournal.TIMER_STOP:
+                running = false;
+                paused = false;
+                break;
+            case ProgressJournal.TIMER_PAUSE:
+                paused = true;
+                break;
+            case ProgressJournal.TIMER_RESUME:
+                paused = false;
+                break;
+            default:
+                break;
         }
+        
+        // Stand aus dem Journal übernehmen, ein offener Abschnitt beginnt erst hier
+        accumulatedNanos = Math.max(accumulatedNanos, nanos);
+        segmentStartNanos = System.nanoTime();
+        lastCheckpointMinute = accumulatedNanos / 60_000_000_000L;
+        publishClock();
     }
     
-    public void loadState() {
+    // ============ CHECKPOINT-DATEI ============
+    
+    /**
+     * Spiegelt den Stand in die timer.ckpt (Sekunden-Task und jeder Übergang, nur Speicherzugriffe)
+     */
+    public synchronized void saveCheckpoint() {
+        checkpointFile.write(running, paused, getElapsedNanos());
+    }
+    
+    /**
+     * Nach dem Journal: übernimmt die Zeit aus der timer.ckpt, falls sie weiter ist
+     * (Absturz zwischen zwei Journal-Checkpoints verliert so höchstens eine Sekunde)
+     */
+    public synchronized void recoverCheckpoint() {
+        TimerCheckpoint.State state = checkpointFile.read();
+        if (state == null || !state.isRunning() || !running) return;
+        if (state.getElapsedNanos() <= accumulatedNanos) return;
+        
+        plugin.getLogger().info("Timer aus timer.ckpt wiederhergestellt: +"
+                + (state.getElapsedNanos() - accumulatedNanos) / 1_000_000L + " ms");
+        accumulatedNanos = state.getElapsedNanos();
+        segmentStartNanos = System.nanoTime();
+        lastCheckpointMinute = accumulatedNanos / 60_000_000_000L;
+        publishClock();
+    }
+    
+    /**
+     * Beim Deaktivieren: letzten Stand schreiben und die Datei auf die Platte bringen
+     */
+    public void closeCheckpoint() {
+        saveCheckpoint();
+        checkpointFile.close();
+    }
+    
+    /**
+     * Nach dem Einspielen: ein laufender Timer startet pausiert
+     */
+    public void finishRestore() {
+        if (running && !paused) {
+            // Ohne pauseClock: die Zeit des Einspielens zählt nicht zur Challenge
+            paused = true;
+            publishClock();
+            plugin.getLogger().info("Timer nach Journal: " + getFormattedTime() + " (pausiert)");
+        }
+    }
+    
+    // ============ LADEN (Speichern: PersistenceService) ============
+    
+    /**
+     * Übernimmt den Timer-Stand aus der progress.dat
+     */
+    public synchronized void restoreState(boolean running, boolean paused, long elapsedMillis) {
+        this.running = running;
+        this.paused = paused;
+        this.accumulatedNanos = elapsedMillis * 1_000_000L;
+        this.lastCheckpointMinute = elapsedMillis / 60_000L;
+        
+        if (running) {
+            // Timer war aktiv, pausieren da Server gerade gestartet
+            this.paused = true;
+        }
+        publishClock();
+        
+        if (running) {
+            plugin.getLogger().info("Timer-Zustand geladen: " + getFormattedTime() + " (pausiert)");
+        }
+    }
+    
+    /**
+     * Migration: liest die alte timer.yml (nur wenn noch keine progress.dat existiert)
+     */
+    public void loadLegacyState() {
         if (!timerFile.exists()) return;
         
         timerConfig = YamlConfiguration.loadConfiguration(timerFile);
         
         running = timerConfig.getBoolean("running", false);
         paused = timerConfig.getBoolean("paused", false);
-        elapsedSeconds = timerConfig.getLong("elapsed-seconds", 0);
+        accumulatedNanos = timerConfig.getLong("elapsed-seconds", 0) * 1_000_000_000L;
         
         if (running) {
             // Timer war aktiv, pausieren da Server gerade gestartet
             paused = true;
+        }
+        publishClock();
+        
+        if (running) {
             plugin.getLogger().info("Timer-Zustand geladen: " + getFormattedTime() + " (pausiert)");
         }
     }
@@ -0,0 +1,98 @@
+package de.b3ncloud.itemhunter.perf;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.logging.Logger;
+
+/**
+ * Liest TPS, MSPT und Ping - welche Quelle es gibt, wird einmal beim Aktivieren geprüft.
+ *
+ * Paper/Folia: Bukkit.getTPS() und Bukkit.getAverageTickTime(), Spigot: das recentTps-Feld
+ * des MinecraftServer (MSPT gibt es dort nicht). Gefundene Quellen werden als MethodHandle
+ * gebunden, danach gibt es pro Aufruf weder Lookups noch Exceptions. Ping kommt direkt aus
+ * der API (Player#getPing, seit 1.17).
+ */
+public class ServerProbe {
+
+    // ()double[] - 1, 5 und 15 Minuten, null wenn keine Quelle gefunden wurde
+    private final MethodHandle tps;
+    private final String tpsSource;
+    
+    // ()double - Millisekunden pro Tick, null wenn keine Quelle gefunden wurde
+    private final MethodHandle mspt;
+    
+    public ServerProbe(Logger logger) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        
+        MethodHandle tpsHandle = null;
+        String source = "keine";
+        try {
+            tpsHandle = lookup.findStatic(Bukkit.class, "getTPS", MethodType.methodType(double[].class));
+            source = "Paper-API";
+        } catch (ReflectiveOperationException e) {
+            // Spigot: MinecraftServer#recentTps (öffentliches Feld aus dem Spigot-Patch)
+            try {
+                Object server = Bukkit.getServer().getClass().getMethod("getServer").invoke(Bukkit.getServer());
+                Field field = server.getClass().getField("recentTps");
+                tpsHandle = lookup.unreflectGetter(field).bindTo(server)
+                        .asType(MethodType.methodType(double[].class));
+                source = "Spigot (recentTps)";
+            } catch (ReflectiveOperationException | RuntimeException e2) {
+                tpsHandle = null;
+            }
+        }
+        this.tps = tpsHandle;
+        this.tpsSource = source;
+        
+        MethodHandle msptHandle;
+        try {
+            msptHandle = lookup.findStatic(Bukkit.class, "getAverageTickTime", MethodType.methodType(double.class));
+        } catch (ReflectiveOperationException e) {
+            msptHandle = null;
+        }
+        this.mspt = msptHandle;
+        
+        logger.info("Server-Werte: TPS " + tpsSource + ", MSPT " + (mspt != null ? "Paper-API" : "nicht verfügbar"));
+    }
+    
+    // ============ WERTE ============
+    
+    /**
+     * TPS der letzten Minute (20.0 wenn der Server keine liefert)
+     */
+    public double getTps() {
+        if (tps == null) return 20.0;
+        
+        try {
+            return ((double[]) tps.invokeExact())[0];
+        } catch (Throwable e) {
+            return 20.0;
+        }
+    }
+    
+    public boolean hasMspt() {
+        return mspt != null;
+    }
+    
+    /**
+     * Durchschnittliche Millisekunden pro Tick, oder -1 wenn der Server keine liefert
+     */
+    public double getMspt() {
+        if (mspt == null) return -1;
+        
+        try {
+            return (double) mspt.invokeExact();
+        } catch (Throwable e) {
+            return -1;
+        }
+    }
+    
+    public int getPing(Player player) {
+        return player.getPing();
+    }
+}
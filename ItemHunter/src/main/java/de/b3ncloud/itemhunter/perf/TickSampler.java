@@ -0,0 +1,193 @@
+package de.b3ncloud.itemhunter.perf;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Misst die Tick-Zeiten selbst, statt nur die 1-Minuten-TPS des Servers zu zeigen.
+ *
+ * Paper: Dauer jedes Ticks aus dem ServerTickEndEvent (echte MSPT).
+ * Spigot/Folia: Abstand zwischen zwei Läufen eines 1-Tick-Tasks (gesund = 50 ms, Lag darüber).
+ * Die Werte landen in einem festen Ringpuffer (ein Schreiber, lock-frei), ausgewertet wird nur
+ * auf Anfrage über die letzten 5 s, 1 min oder 5 min - der Speicher bleibt konstant.
+ */
+public class TickSampler implements Listener {
+
+    public static final int WINDOW_5S = 100;
+    public static final int WINDOW_1M = 1200;
+    public static final int WINDOW_5M = 6000;
+    
+    // Größer als das längste Fenster, damit Leser nie einen gerade überschriebenen Slot auswerten
+    private static final int CAPACITY = 8192;
+    private static final int MASK = CAPACITY - 1;
+    
+    private static final String TICK_END_EVENT = "com.destroystokyo.paper.event.server.ServerTickEndEvent";
+    
+    /**
+     * Auswertung eines Fensters in Millisekunden
+     */
+    public static final class Stats {
+        private final int samples;
+        private final double mean;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double max;
+        
+        private Stats(int samples, double mean, double p50, double p95, double p99, double max) {
+            this.samples = samples;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+        
+        public int getSamples() {
+            return samples;
+        }
+        
+        public double getMean() {
+            return mean;
+        }
+        
+        public double getP50() {
+            return p50;
+        }
+        
+        public double getP95() {
+            return p95;
+        }
+        
+        public double getP99() {
+            return p99;
+        }
+        
+        public double getMax() {
+            return max;
+        }
+    }
+    
+    private final ItemHunter plugin;
+    
+    // Tick-Zeiten in Mikrosekunden, written zählt alle bisherigen Werte (nur der Tick-Thread schreibt)
+    private final int[] micros = new int[CAPACITY];
+    private final AtomicLong written = new AtomicLong();
+    
+    // Sortier-Puffer für die Auswertung (geschützt über this)
+    private final int[] scratch = new int[WINDOW_5M];
+    
+    // true: echte Tick-Dauer (Paper), false: Abstand zwischen Ticks
+    private volatile boolean tickDuration = false;
+    
+    // Scheduler-Variante: Zeitpunkt des letzten Laufs
+    private long lastTickNanos = 0;
+    
+    public TickSampler(ItemHunter plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Registriert die Paper-Events oder startet den 1-Tick-Task
+     */
+    public void start() {
+        // Folia feuert keine Server-Tick-Events (jede Region tickt für sich)
+        if (!plugin.isFolia() && registerTickEvents()) {
+            tickDuration = true;
+            return;
+        }
+        
+        plugin.getSchedulerFacade().runGlobalTimer(() -> {
+            long now = System.nanoTime();
+            if (lastTickNanos != 0) {
+                record(now - lastTickNanos);
+            }
+            lastTickNanos = now;
+        }, 1L, 1L);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private boolean registerTickEvents() {
+        try {
+            Class<? extends Event> endEvent = (Class<? extends Event>) Class.forName(TICK_END_EVENT);
+            // ServerTickEndEvent#getTickDuration(): Millisekunden als double
+            MethodHandle duration = MethodHandles.publicLookup()
+                    .findVirtual(endEvent, "getTickDuration", MethodType.methodType(double.class))
+                    .asType(MethodType.methodType(double.class, Event.class));
+            
+            Bukkit.getPluginManager().registerEvent(endEvent, this, EventPriority.MONITOR, (listener, event) -> {
+                if (!endEvent.isInstance(event)) return;
+                try {
+                    record((long) ((double) duration.invokeExact(event) * 1_000_000.0));
+                } catch (Throwable e) {
+                    // Event ohne Dauer ignorieren
+                }
+            }, plugin);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Tick-Events nicht nutzbar: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    // ============ SCHREIBEN ============
+    
+    /**
+     * Speichert eine Tick-Zeit (nur vom Tick-Thread)
+     */
+    public void record(long nanos) {
+        long index = written.get();
+        micros[(int) index & MASK] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, nanos / 1000L));
+        written.lazySet(index + 1);
+    }
+    
+    // ============ AUSWERTEN ============
+    
+    /**
+     * Kennzahlen der letzten window Ticks, null solange noch nichts gemessen wurde
+     */
+    public synchronized Stats getStats(int window) {
+        long end = written.get();
+        int count = (int) Math.min(Math.min(window, WINDOW_5M), end);
+        if (count == 0) return null;
+        
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            int value = micros[(int) (end - count + i) & MASK];
+            scratch[i] = value;
+            sum += value;
+        }
+        Arrays.sort(scratch, 0, count);
+        
+        return new Stats(count, sum / (double) count / 1000.0,
+                percentile(count, 0.50), percentile(count, 0.95), percentile(count, 0.99),
+                scratch[count - 1] / 1000.0);
+    }
+    
+    private double percentile(int count, double quantile) {
+        int index = (int) Math.ceil(quantile * count) - 1;
+        return scratch[Math.max(0, Math.min(count - 1, index))] / 1000.0;
+    }
+    
+    /**
+     * true wenn echte Tick-Dauer (MSPT) gemessen wird, false bei Tick-Abständen
+     */
+    public boolean isTickDuration() {
+        return tickDuration;
+    }
+    
+    public String getSourceName() {
+        return tickDuration ? "Tick-Events (MSPT)" : "Scheduler (Tick-Abstand)";
+    }
+}
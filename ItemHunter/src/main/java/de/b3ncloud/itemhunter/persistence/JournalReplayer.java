@@ -0,0 +1,76 @@
+package de.b3ncloud.itemhunter.persistence;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import de.b3ncloud.itemhunter.managers.ItemManager;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.EntityType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spielt Journal-Records auf die bereits geladenen Snapshots der Manager ein
+ */
+public class JournalReplayer implements ProgressJournal.Handler {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    
+    private final ItemHunter plugin;
+    
+    public JournalReplayer(ItemHunter plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public void onFound(byte kind, int target, UUID playerUuid, String playerName, long elapsedMillis, long wallMillis) {
+        int player = plugin.getPlayerRegistry().idOf(playerUuid, playerName);
+        if (restore(kind, target, player, elapsedMillis)) {
+            plugin.getTimeline().record(kind, target, player, elapsedMillis, wallMillis, false);
+        }
+        plugin.getTimerManager().restoreTransition(ProgressJournal.TIMER_CHECKPOINT, elapsedMillis);
+    }
+    
+    @Override
+    public void onSkip(byte kind, int target, long elapsedMillis, long wallMillis) {
+        int player = plugin.getPlayerRegistry().idOfName(ItemManager.SKIP_FINDER);
+        if (restore(kind, target, player, elapsedMillis)) {
+            plugin.getTimeline().record(kind, target, player, elapsedMillis, wallMillis, true);
+        }
+        plugin.getTimerManager().restoreTransition(ProgressJournal.TIMER_CHECKPOINT, elapsedMillis);
+    }
+    
+    @Override
+    public void onTimer(byte transition, long elapsedMillis) {
+        if (transition == ProgressJournal.TIMER_START) {
+            // Neuer Lauf: alles davor ist überholt
+            plugin.getItemManager().initializeItems();
+            plugin.getMobManager().initializeMobs();
+            plugin.getAchievementManager().initializeAdvancements();
+            plugin.getTimeline().clear();
+        }
+        
+        plugin.getTimerManager().restoreTransition(transition, elapsedMillis);
+    }
+    
+    /**
+     * @return true wenn das Ziel neu übernommen wurde (nicht schon im Snapshot)
+     */
+    private boolean restore(byte kind, int target, int player, long elapsedMillis) {
+        switch (kind) {
+            case ProgressJournal.KIND_ITEM:
+                return target >= 0 && target < MATERIALS.length
+                        && plugin.getItemManager().restoreFound(MATERIALS[target], player, elapsedMillis);
+            case ProgressJournal.KIND_MOB:
+                return target >= 0 && target < ENTITY_TYPES.length
+                        && plugin.getMobManager().restoreKilled(ENTITY_TYPES[target], player, elapsedMillis);
+            case ProgressJournal.KIND_ADVANCEMENT:
+                List<NamespacedKey> advancements = plugin.getCatalog().getAdvancements();
+                return target >= 0 && target < advancements.size()
+                        && plugin.getAchievementManager().restoreCompleted(advancements.get(target), player, elapsedMillis);
+            default:
+                return false;
+        }
+    }
+}
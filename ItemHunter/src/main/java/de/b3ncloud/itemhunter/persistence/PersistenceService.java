@@ -0,0 +1,221 @@
+package de.b3ncloud.itemhunter.persistence;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Schreibt Fortschritts-Snapshots auf einem eigenen Hintergrund-Thread.
+ *
+ * Der Main-Thread erstellt nur einen ProgressSnapshot; Serialisierung (progress.dat)
+ * und Datei-I/O laufen auf einem Single-Thread-Executor. Überlappende Anfragen werden
+ * zusammengefasst (nur der neueste Snapshot wird geschrieben), jede Datei wird
+ * über eine Temp-Datei plus atomares Umbenennen ersetzt.
+ *
+ * Die alten YAML-Dateien werden nur noch zur Migration gelesen und nach dem
+ * ersten erfolgreichen Schreiben der progress.dat gelöscht.
+ */
+public class PersistenceService {
+
+    private final ItemHunter plugin;
+    private final ProgressJournal journal;
+    private final ExecutorService executor;
+    
+    private final File dataFile;
+    
+    // Alte YAML-Dateien (nur Migration)
+    private final File[] legacyFiles;
+    
+    // Neuester noch nicht geschriebener Auftrag
+    private final AtomicReference<SaveRequest> pending = new AtomicReference<>();
+    
+    public PersistenceService(ItemHunter plugin, ProgressJournal journal) {
+        this.plugin = plugin;
+        this.journal = journal;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ItemHunter-Persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        File dataFolder = plugin.getDataFolder();
+        this.dataFile = new File(dataFolder, "progress.dat");
+        this.legacyFiles = new File[]{
+                new File(dataFolder, "progress.yml"),
+                new File(dataFolder, "mobs.yml"),
+                new File(dataFolder, "achievements.yml"),
+                new File(dataFolder, "timer.yml")
+        };
+    }
+    
+    // ============ LADEN ============
+    
+    /**
+     * Liest die progress.dat (einmalig beim Start)
+     * @return null wenn keine Datei existiert oder sie beschädigt ist
+     */
+    public ProgressSnapshot load() {
+        if (!dataFile.exists()) return null;
+        
+        try {
+            return ProgressCodec.decode(Files.readAllBytes(dataFile.toPath()));
+        } catch (IOException e) {
+            plugin.getLogger().severe("Konnte progress.dat nicht lesen: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Gibt es noch Fortschritt im alten YAML-Format?
+     */
+    public boolean hasLegacyFiles() {
+        for (File file : legacyFiles) {
+            if (file.exists()) return true;
+        }
+        return false;
+    }
+    
+    // ============ AUFTRÄGE ============
+    
+    /**
+     * Speichert einen Snapshot asynchron
+     * @param journalKeepFrom Journal-Segmente davor sind danach überflüssig
+     */
+    public void save(ProgressSnapshot snapshot, int journalKeepFrom) {
+        // Läuft schon ein Auftrag in der Warteschlange, wird nur der Snapshot ersetzt
+        if (pending.getAndSet(new SaveRequest(snapshot, journalKeepFrom)) == null) {
+            executor.execute(this::drain);
+        }
+    }
+    
+    /**
+     * Löscht alle Fortschritts-Dateien asynchron (Reset).
+     * Ausstehende Snapshots werden verworfen, bereits laufende vorher beendet.
+     */
+    public void deleteAll(int journalKeepFrom) {
+        pending.set(null);
+        executor.execute(() -> {
+            delete(dataFile);
+            deleteLegacyFiles();
+            journal.discardBefore(journalKeepFrom);
+        });
+    }
+    
+    // ============ EXPORT / IMPORT ============
+    
+    /**
+     * Schreibt einen Snapshot als lesbares YAML (im Hintergrund)
+     * @param callback läuft auf dem Main-Thread, null bei Erfolg sonst Fehlermeldung
+     */
+    public void exportYaml(ProgressSnapshot snapshot, File target, Consumer<String> callback) {
+        executor.execute(() -> {
+            String error = null;
+            try {
+                writeAtomic(target, ProgressYaml.encode(snapshot).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                error = e.getMessage();
+            }
+            String result = error;
+            plugin.getSchedulerFacade().runGlobal(() -> callback.accept(result));
+        });
+    }
+    
+    /**
+     * Liest einen YAML-Export (im Hintergrund)
+     * @param callback läuft auf dem Main-Thread, null wenn die Datei nicht lesbar ist
+     */
+    public void importYaml(File source, Consumer<ProgressSnapshot> callback) {
+        executor.execute(() -> {
+            ProgressSnapshot snapshot = null;
+            try {
+                YamlConfiguration config = new YamlConfiguration();
+                config.loadFromString(new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8));
+                snapshot = ProgressYaml.decode(config);
+            } catch (IOException | InvalidConfigurationException e) {
+                plugin.getLogger().warning("Konnte " + source.getName() + " nicht importieren: " + e.getMessage());
+            }
+            ProgressSnapshot result = snapshot;
+            plugin.getSchedulerFacade().runGlobal(() -> callback.accept(result));
+        });
+    }
+    
+    // ============ BEENDEN ============
+    
+    /**
+     * Wartet bis alle Aufträge geschrieben sind und beendet den Executor (onDisable)
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Speichern hat nach 30 Sekunden nicht abgeschlossen!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void drain() {
+        SaveRequest request = pending.getAndSet(null);
+        if (request == null) return;
+        
+        try {
+            writeAtomic(dataFile, ProgressCodec.encode(request.snapshot));
+            deleteLegacyFiles();
+            journal.discardBefore(request.journalKeepFrom);
+        } catch (IOException e) {
+            // Journal bleibt erhalten, beim nächsten Start wird es eingespielt
+            plugin.getLogger().severe("Konnte Fortschritt nicht speichern: " + e.getMessage());
+        }
+    }
+    
+    // ============ DATEIEN ============
+    
+    private void deleteLegacyFiles() {
+        for (File file : legacyFiles) {
+            delete(file);
+        }
+    }
+    
+    private void delete(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Konnte " + file.getName() + " nicht löschen: " + e.getMessage());
+        }
+    }
+    
+    private static void writeAtomic(File target, byte[] content) throws IOException {
+        File tempFile = new File(target.getPath() + ".tmp");
+        Files.createDirectories(target.getParentFile().toPath());
+        Files.write(tempFile.toPath(), content);
+        
+        try {
+            Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static final class SaveRequest {
+        private final ProgressSnapshot snapshot;
+        private final int journalKeepFrom;
+        
+        private SaveRequest(ProgressSnapshot snapshot, int journalKeepFrom) {
+            this.snapshot = snapshot;
+            this.journalKeepFrom = journalKeepFrom;
+        }
+    }
+}
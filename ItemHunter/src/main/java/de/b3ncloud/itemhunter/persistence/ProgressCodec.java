@@ -0,0 +1,301 @@
+package de.b3ncloud.itemhunter.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Binäres Format der progress.dat.
+ *
+ * Aufbau (alle Zahlen als Varint, Zeiten als ZigZag-Delta zur vorherigen Zeit):
+ * <pre>
+ * int     Magic "IHPD"
+ * short   Format-Version
+ * byte    Timer-Flags (1 = läuft, 2 = pausiert)
+ * varlong Timer-Millisekunden
+ * varint  Anzahl Strings, dann je varint Länge + UTF-8 (Ziel-IDs und Spielernamen)
+ * varint  Anzahl Spieler, dann je varint Namens-String, byte "UUID vorhanden", [16 Bytes UUID]
+ * 3x Sektion (Items, Mobs, Advancements):
+ *   varint  Anzahl Einträge
+ *   bytes   Bitmap "Finder bekannt" (1 Bit pro Eintrag)
+ *   je Eintrag: varint Ziel-String, [varint Spieler], varlong Delta Challenge-Millisekunden
+ * Zeitleiste:
+ *   varint  Anzahl Events
+ *   je Event: byte Art (Bit 7 = übersprungen), varint Eintrag in der Sektion der Art,
+ *             varlong Delta Challenge-Millisekunden, varlong Delta Uhrzeit-Millisekunden
+ * int     CRC32 über alles davor
+ * </pre>
+ * Es gibt nur diese eine Version; alte Spielstände (YAML) werden beim ersten Start migriert.
+ * Geladen wird in einem Durchlauf über ein einziges Byte-Array.
+ */
+public final class ProgressCodec {
+
+    private static final int MAGIC = 0x49485044; // "IHPD"
+    private static final short FORMAT_VERSION = 1;
+    
+    private static final int FLAG_RUNNING = 1;
+    private static final int FLAG_PAUSED = 2;
+    
+    private ProgressCodec() {
+    }
+    
+    // ============ SCHREIBEN ============
+    
+    public static byte[] encode(ProgressSnapshot snapshot) {
+        // String-Tabelle: jede Ziel-ID und jeder Spielername genau einmal,
+        // Spieler-Tabelle: jede Kombination aus Name und UUID genau einmal
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        Map<PlayerKey, Integer> playerIds = new HashMap<>();
+        List<PlayerKey> players = new ArrayList<>();
+        for (List<ProgressSnapshot.Entry> section : sections(snapshot)) {
+            for (ProgressSnapshot.Entry entry : section) {
+                intern(strings, table, entry.getTarget());
+                if (entry.getFinder() != null) {
+                    intern(strings, table, entry.getFinder());
+                    PlayerKey player = new PlayerKey(entry.getFinder(), entry.getFinderUuid());
+                    if (!playerIds.containsKey(player)) {
+                        playerIds.put(player, players.size());
+                        players.add(player);
+                    }
+                }
+            }
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        writeInt(out, MAGIC);
+        out.write(FORMAT_VERSION >>> 8);
+        out.write(FORMAT_VERSION & 0xFF);
+        out.write((snapshot.isTimerRunning() ? FLAG_RUNNING : 0) | (snapshot.isTimerPaused() ? FLAG_PAUSED : 0));
+        writeVarLong(out, snapshot.getElapsedMillis());
+        
+        writeVarLong(out, table.size());
+        for (String value : table) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        
+        writeVarLong(out, players.size());
+        for (PlayerKey player : players) {
+            writeVarLong(out, strings.get(player.name));
+            if (player.uuid != null) {
+                out.write(1);
+                writeLong(out, player.uuid.getMostSignificantBits());
+                writeLong(out, player.uuid.getLeastSignificantBits());
+            } else {
+                out.write(0);
+            }
+        }
+        
+        for (List<ProgressSnapshot.Entry> section : sections(snapshot)) {
+            writeVarLong(out, section.size());
+            
+            byte[] hasFinder = new byte[(section.size() + 7) >>> 3];
+            for (int i = 0; i < section.size(); i++) {
+                if (section.get(i).getFinder() != null) {
+                    hasFinder[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(hasFinder, 0, hasFinder.length);
+            
+            long previousTime = 0;
+            for (ProgressSnapshot.Entry entry : section) {
+                writeVarLong(out, strings.get(entry.getTarget()));
+                if (entry.getFinder() != null) {
+                    writeVarLong(out, playerIds.get(new PlayerKey(entry.getFinder(), entry.getFinderUuid())));
+                }
+                writeVarLong(out, zigZag(entry.getElapsedMillis() - previousTime));
+                previousTime = entry.getElapsedMillis();
+            }
+        }
+        
+        // Zeitleiste: verweist auf die Einträge, pro Event nur wenige Bytes
+        writeVarLong(out, snapshot.getSplits().size());
+        long previousElapsed = 0;
+        long previousWall = 0;
+        for (ProgressSnapshot.Split split : snapshot.getSplits()) {
+            out.write(split.getKind() | (split.isSkipped() ? 0x80 : 0));
+            writeVarLong(out, split.getEntry());
+            writeVarLong(out, zigZag(split.getElapsedMillis() - previousElapsed));
+            writeVarLong(out, zigZag(split.getWallMillis() - previousWall));
+            previousElapsed = split.getElapsedMillis();
+            previousWall = split.getWallMillis();
+        }
+        
+        CRC32 crc = new CRC32();
+        byte[] body = out.toByteArray();
+        crc.update(body, 0, body.length);
+        writeInt(out, (int) crc.getValue());
+        return out.toByteArray();
+    }
+    
+    // ============ LESEN ============
+    
+    /**
+     * @throws IOException bei falschem Magic, unbekannter Version, Prüfsummenfehler oder abgeschnittener Datei
+     */
+    public static ProgressSnapshot decode(byte[] data) throws IOException {
+        if (data.length < 11) throw new IOException("Datei zu kurz");
+        
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.getInt(data.length - 4) != (int) crc.getValue()) {
+            throw new IOException("Prüfsumme stimmt nicht");
+        }
+        
+        try {
+            if (buffer.getInt() != MAGIC) throw new IOException("Keine ItemHunter-Fortschrittsdatei");
+            short version = buffer.getShort();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unbekannte Format-Version " + version);
+            }
+            
+            int flags = buffer.get();
+            long elapsedMillis = readVarLong(buffer);
+            
+            String[] table = new String[(int) readVarLong(buffer)];
+            for (int i = 0; i < table.length; i++) {
+                int length = (int) readVarLong(buffer);
+                table[i] = new String(data, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+            
+            PlayerKey[] players = new PlayerKey[(int) readVarLong(buffer)];
+            for (int i = 0; i < players.length; i++) {
+                String name = table[(int) readVarLong(buffer)];
+                UUID uuid = buffer.get() != 0 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+                players[i] = new PlayerKey(name, uuid);
+            }
+            
+            List<ProgressSnapshot.Entry> items = readSection(buffer, table, players);
+            List<ProgressSnapshot.Entry> mobs = readSection(buffer, table, players);
+            List<ProgressSnapshot.Entry> advancements = readSection(buffer, table, players);
+            List<ProgressSnapshot.Split> splits = readSplits(buffer);
+            
+            return new ProgressSnapshot(items, mobs, advancements, splits,
+                    (flags & FLAG_RUNNING) != 0, (flags & FLAG_PAUSED) != 0, elapsedMillis);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Datei ist abgeschnitten oder beschädigt");
+        }
+    }
+    
+    private static List<ProgressSnapshot.Entry> readSection(ByteBuffer buffer, String[] table, PlayerKey[] players) {
+        int count = (int) readVarLong(buffer);
+        byte[] hasFinder = new byte[(count + 7) >>> 3];
+        buffer.get(hasFinder);
+        
+        List<ProgressSnapshot.Entry> entries = new ArrayList<>(count);
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            String target = table[(int) readVarLong(buffer)];
+            PlayerKey finder = (hasFinder[i >>> 3] & (1 << (i & 7))) != 0 ? players[(int) readVarLong(buffer)] : null;
+            time += unZigZag(readVarLong(buffer));
+            entries.add(finder != null
+                    ? new ProgressSnapshot.Entry(target, finder.name, finder.uuid, time)
+                    : new ProgressSnapshot.Entry(target, null, null, time));
+        }
+        return entries;
+    }
+    
+    private static List<ProgressSnapshot.Split> readSplits(ByteBuffer buffer) {
+        int count = (int) readVarLong(buffer);
+        List<ProgressSnapshot.Split> splits = new ArrayList<>(count);
+        long elapsed = 0;
+        long wall = 0;
+        for (int i = 0; i < count; i++) {
+            int kind = buffer.get();
+            int entry = (int) readVarLong(buffer);
+            elapsed += unZigZag(readVarLong(buffer));
+            wall += unZigZag(readVarLong(buffer));
+            splits.add(new ProgressSnapshot.Split((byte) (kind & 0x7F), entry, elapsed, wall, (kind & 0x80) != 0));
+        }
+        return splits;
+    }
+    
+    // ============ HILFSMETHODEN ============
+    
+    @SuppressWarnings("unchecked")
+    private static List<ProgressSnapshot.Entry>[] sections(ProgressSnapshot snapshot) {
+        return new List[]{snapshot.getItems(), snapshot.getMobs(), snapshot.getAdvancements()};
+    }
+    
+    private static void intern(Map<String, Integer> strings, List<String> table, String value) {
+        if (!strings.containsKey(value)) {
+            strings.put(value, table.size());
+            table.add(value);
+        }
+    }
+    
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+    
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        writeInt(out, (int) (value >>> 32));
+        writeInt(out, (int) value);
+    }
+    
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 64);
+        return value;
+    }
+    
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static final class PlayerKey {
+        private final String name;
+        private final UUID uuid;
+        
+        private PlayerKey(String name, UUID uuid) {
+            this.name = name;
+            this.uuid = uuid;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PlayerKey)) return false;
+            PlayerKey other = (PlayerKey) o;
+            return name.equals(other.name) && Objects.equals(uuid, other.uuid);
+        }
+        
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + Objects.hashCode(uuid);
+        }
+    }
+}
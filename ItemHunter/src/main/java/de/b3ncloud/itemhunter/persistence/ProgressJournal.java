@@ -0,0 +1,523 @@
+package de.b3ncloud.itemhunter.persistence;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only Write-Ahead-Journal für den Challenge-Fortschritt.
+ *
+ * Jeder Fund, Kill, jedes Advancement, jeder Skip und jeder Timer-Übergang
+ * wird als 32-Byte-Record angehängt. Ein Hintergrund-Thread schreibt alle
+ * wartenden Records gesammelt und ruft nur einmal pro Batch force() auf (Group Commit).
+ *
+ * Das Journal besteht aus Segmenten (journal/00000001.log, ...). Beim Kompaktieren
+ * wird auf ein neues Segment rotiert, danach ein Snapshot geschrieben und die
+ * alten Segmente gelöscht. Beim Start werden Snapshot + alle Segmente eingespielt.
+ *
+ * Auf dem Main-Thread findet keine Datei-I/O statt: Rotationen werden nur im Buffer
+ * markiert und vom Schreib-Thread ausgeführt.
+ */
+public class ProgressJournal {
+
+    public static final int RECORD_SIZE = 32;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x49484A4C; // "IHJL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_NAME_BYTES = 20;
+    
+    // Record-Typen
+    public static final byte OP_FOUND = 1;
+    public static final byte OP_SKIP = 2;
+    public static final byte OP_TIMER = 3;
+    private static final byte OP_PLAYER = 4;
+    private static final byte OP_PLAYER_UUID = 5;
+    
+    // Ziel-Arten
+    public static final byte KIND_ITEM = 0;
+    public static final byte KIND_MOB = 1;
+    public static final byte KIND_ADVANCEMENT = 2;
+    
+    // Timer-Übergänge
+    public static final byte TIMER_START = 0;
+    public static final byte TIMER_STOP = 1;
+    public static final byte TIMER_PAUSE = 2;
+    public static final byte TIMER_RESUME = 3;
+    public static final byte TIMER_CHECKPOINT = 4;
+    
+    /**
+     * Empfängt eingespielte Records beim Start
+     */
+    public interface Handler {
+        void onFound(byte kind, int target, UUID playerUuid, String playerName, long elapsedMillis, long wallMillis);
+        
+        void onSkip(byte kind, int target, long elapsedMillis, long wallMillis);
+        
+        void onTimer(byte transition, long elapsedMillis);
+    }
+    
+    private final ItemHunter plugin;
+    private final File directory;
+    private volatile long catalogHash;
+    
+    // Schützt pending-Buffer, Spieler-Tabelle und Zähler
+    private final Object lock = new Object();
+    // Schützt den FileChannel (Schreiben, Rotieren, Schließen)
+    private final Object ioLock = new Object();
+    
+    private ByteBuffer pending = ByteBuffer.allocate(RECORD_SIZE * 256);
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    
+    // Spieler-UUID → ID (pro Segment)
+    private final Map<UUID, Integer> playerIds = new HashMap<>();
+    
+    // Buffer-Positionen an denen ein neues Segment beginnt
+    private final List<Integer> rotateMarks = new ArrayList<>();
+    // Segment das neue Records aufnimmt (inkl. noch nicht ausgeführter Rotationen)
+    private int headSegment = 0;
+    
+    private long appendedRecords = 0;
+    private long durableRecords = 0;
+    private int segmentRecords = 0;
+    
+    private FileChannel channel;
+    private int segmentNumber = 0;
+    
+    private Thread writer;
+    private volatile boolean running = false;
+    
+    public ProgressJournal(ItemHunter plugin, String catalogKey) {
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "journal");
+        
+        this.catalogHash = hashKey(catalogKey);
+    }
+    
+    // ============ START / STOP ============
+    
+    /**
+     * Spielt alle vorhandenen Segmente in Reihenfolge ein
+     */
+    public void replay(Handler handler) {
+        File[] segments = listSegments();
+        int replayed = 0;
+        
+        for (File segment : segments) {
+            segmentNumber = Math.max(segmentNumber, parseSegmentNumber(segment));
+            replayed += replaySegment(segment, handler);
+        }
+        
+        if (replayed > 0) {
+            plugin.getLogger().info("Journal eingespielt: " + replayed + " Einträge aus " + segments.length + " Segment(en)");
+        }
+    }
+    
+    /**
+     * Startet den Schreib-Thread, der zuerst ein neues Segment öffnet
+     */
+    public void open() {
+        synchronized (lock) {
+            headSegment = segmentNumber + 1;
+        }
+        
+        running = true;
+        writer = new Thread(this::writerLoop, "ItemHunter-Journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    /**
+     * Schreibt alles Ausstehende und beendet den Schreib-Thread
+     */
+    public void close() {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        
+        if (writer != null) {
+            try {
+                writer.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        synchronized (ioLock) {
+            writePending();
+            closeChannel();
+        }
+    }
+    
+    // ============ SCHREIBEN ============
+    
+    public void recordFound(byte kind, int target, UUID playerUuid, String playerName, long elapsedMillis) {
+        append(OP_FOUND, kind, target, playerUuid, playerName, elapsedMillis);
+    }
+    
+    public void recordSkip(byte kind, int target, long elapsedMillis) {
+        append(OP_SKIP, kind, target, null, null, elapsedMillis);
+    }
+    
+    public void recordTimer(byte transition, long elapsedMillis) {
+        append(OP_TIMER, transition, 0, null, null, elapsedMillis);
+    }
+    
+    private void append(byte op, byte kind, int target, UUID playerUuid, String playerName, long elapsedMillis) {
+        if (!running) return;
+        
+        synchronized (lock) {
+            int playerId = -1;
+            if (playerUuid != null) {
+                Integer id = playerIds.get(playerUuid);
+                if (id == null) {
+                    id = playerIds.size();
+                    playerIds.put(playerUuid, id);
+                    putPlayerRecords(id, playerUuid, playerName);
+                }
+                playerId = id;
+            }
+            
+            record.clear();
+            record.put(op).put(kind).putShort((short) 0);
+            record.putInt(target);
+            record.putInt(playerId);
+            record.putLong(elapsedMillis);
+            record.putLong(System.currentTimeMillis());
+            putRecord();
+            
+            lock.notifyAll();
+        }
+    }
+    
+    private void putPlayerRecords(int id, UUID uuid, String name) {
+        record.clear();
+        record.put(OP_PLAYER_UUID).put((byte) 0).putShort((short) 0);
+        record.putInt(id);
+        record.putLong(uuid.getMostSignificantBits());
+        record.putLong(uuid.getLeastSignificantBits());
+        putRecord();
+        
+        byte[] nameBytes = (name != null ? name : "").getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(nameBytes.length, MAX_NAME_BYTES);
+        
+        record.clear();
+        record.put(OP_PLAYER).put((byte) length).putShort((short) 0);
+        record.putInt(id);
+        record.put(nameBytes, 0, length);
+        putRecord();
+    }
+    
+    /**
+     * Füllt den Record auf, hängt CRC an und legt ihn in den Batch-Buffer (unter lock)
+     */
+    private void putRecord() {
+        while (record.position() < RECORD_SIZE - 4) {
+            record.put((byte) 0);
+        }
+        
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        record.putInt((int) crc.getValue());
+        
+        if (pending.remaining() < RECORD_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(pending.capacity() * 2);
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        
+        pending.put(record.array(), 0, RECORD_SIZE);
+        appendedRecords++;
+        segmentRecords++;
+    }
+    
+    private void writerLoop() {
+        synchronized (ioLock) {
+            directory.mkdirs();
+            openNextSegment();
+        }
+        
+        while (true) {
+            synchronized (lock) {
+                while (pending.position() == 0 && rotateMarks.isEmpty() && running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0 && rotateMarks.isEmpty()) return;
+            }
+            
+            synchronized (ioLock) {
+                writePending();
+            }
+        }
+    }
+    
+    /**
+     * Schreibt den aktuellen Batch, führt markierte Rotationen aus
+     * und synchronisiert einmal pro Segment (unter ioLock)
+     */
+    private void writePending() {
+        byte[] batch;
+        int[] marks;
+        long batchEnd;
+        synchronized (lock) {
+            if (pending.position() == 0 && rotateMarks.isEmpty()) return;
+            batch = Arrays.copyOf(pending.array(), pending.position());
+            marks = rotateMarks.stream().mapToInt(Integer::intValue).toArray();
+            batchEnd = appendedRecords;
+            pending.clear();
+            rotateMarks.clear();
+        }
+        
+        int start = 0;
+        for (int mark : marks) {
+            writeBatch(batch, start, mark);
+            closeChannel();
+            openNextSegment();
+            start = mark;
+        }
+        writeBatch(batch, start, batch.length);
+        
+        synchronized (lock) {
+            durableRecords = Math.max(durableRecords, batchEnd);
+            lock.notifyAll();
+        }
+    }
+    
+    private void writeBatch(byte[] batch, int from, int to) {
+        if (channel == null || from >= to) return;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batch, from, to - from);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Konnte Journal nicht schreiben: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Wartet bis alle bisher angehängten Records auf der Platte sind
+     */
+    public void flush() {
+        synchronized (lock) {
+            long target = appendedRecords;
+            lock.notifyAll();
+            while (durableRecords < target && running) {
+                try {
+                    lock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    // ============ KOMPAKTIEREN ============
+    
+    /**
+     * Beendet das aktuelle Segment und beginnt ein neues (nur Markierung, keine I/O).
+     * Alle Records bis hierhin sind durch den anschließend geschriebenen Snapshot abgedeckt.
+     * @return Segment-Nummer ab der Records erhalten bleiben müssen
+     */
+    public int rotate() {
+        synchronized (lock) {
+            rotateMarks.add(pending.position());
+            playerIds.clear();
+            segmentRecords = 0;
+            headSegment++;
+            
+            lock.notifyAll();
+            return headSegment;
+        }
+    }
+    
+    /**
+     * Rotiert und bindet neue Segmente an einen (neuen) Ziel-Katalog (Challenge-Start)
+     * @return Segment-Nummer ab der Records erhalten bleiben müssen
+     */
+    public int rotate(String catalogKey) {
+        catalogHash = hashKey(catalogKey);
+        return rotate();
+    }
+    
+    /**
+     * Löscht alle Segmente vor der angegebenen Nummer (nach erfolgreichem Snapshot).
+     * Nicht vom Main-Thread aufrufen: führt ausstehende Rotationen vorher aus.
+     */
+    public void discardBefore(int keepFrom) {
+        synchronized (ioLock) {
+            writePending();
+            
+            for (File segment : listSegments()) {
+                if (parseSegmentNumber(segment) < keepFrom) {
+                    segment.delete();
+                }
+            }
+        }
+    }
+    
+    public int getSegmentRecords() {
+        synchronized (lock) {
+            return segmentRecords;
+        }
+    }
+    
+    // ============ SEGMENTE ============
+    
+    private void openNextSegment() {
+        segmentNumber++;
+        File file = new File(directory, String.format("%08d.log", segmentNumber));
+        
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(catalogHash);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            channel = null;
+            plugin.getLogger().severe("Konnte Journal-Segment nicht öffnen: " + e.getMessage());
+        }
+    }
+    
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Konnte Journal-Segment nicht schließen: " + e.getMessage());
+        }
+        channel = null;
+    }
+    
+    private File[] listSegments() {
+        File[] segments = directory.listFiles((dir, name) -> name.endsWith(".log"));
+        if (segments == null) return new File[0];
+        
+        Arrays.sort(segments, (a, b) -> Integer.compare(parseSegmentNumber(a), parseSegmentNumber(b)));
+        return segments;
+    }
+    
+    private static long hashKey(String catalogKey) {
+        CRC32 keyCrc = new CRC32();
+        keyCrc.update(catalogKey.getBytes(StandardCharsets.UTF_8));
+        return keyCrc.getValue();
+    }
+    
+    private static int parseSegmentNumber(File segment) {
+        String name = segment.getName();
+        try {
+            return Integer.parseInt(name.substring(0, name.length() - 4));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    // ============ EINSPIELEN ============
+    
+    private int replaySegment(File segment, Handler handler) {
+        int count = 0;
+        
+        try (FileChannel in = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                // Header vollständig lesen
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                return 0;
+            }
+            if (header.getLong() != catalogHash) {
+                plugin.getLogger().warning("Journal-Segment " + segment.getName() +
+                        " gehört zu einem anderen Ziel-Katalog und wird ignoriert");
+                return 0;
+            }
+            
+            Map<Integer, UUID> playerUuids = new HashMap<>();
+            Map<Integer, String> players = new HashMap<>();
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+            CRC32 check = new CRC32();
+            
+            while (true) {
+                buffer.clear();
+                while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                    // Record vollständig lesen
+                }
+                if (buffer.hasRemaining()) break; // Abgeschnittenes Ende
+                
+                check.reset();
+                check.update(buffer.array(), 0, RECORD_SIZE - 4);
+                buffer.flip();
+                if (buffer.getInt(RECORD_SIZE - 4) != (int) check.getValue()) break; // Zerrissener Record
+                
+                byte op = buffer.get();
+                byte kind = buffer.get();
+                buffer.getShort();
+                
+                if (op == OP_PLAYER) {
+                    int id = buffer.getInt();
+                    byte[] nameBytes = new byte[Math.min(kind & 0xFF, MAX_NAME_BYTES)];
+                    buffer.get(nameBytes);
+                    players.put(id, new String(nameBytes, StandardCharsets.UTF_8));
+                    continue;
+                }
+                if (op == OP_PLAYER_UUID) {
+                    int id = buffer.getInt();
+                    playerUuids.put(id, new UUID(buffer.getLong(), buffer.getLong()));
+                    continue;
+                }
+                
+                int target = buffer.getInt();
+                int playerId = buffer.getInt();
+                long elapsedMillis = buffer.getLong();
+                long wallMillis = buffer.getLong();
+                
+                switch (op) {
+                    case OP_FOUND:
+                        handler.onFound(kind, target, playerUuids.get(playerId), players.get(playerId),
+                                elapsedMillis, wallMillis);
+                        break;
+                    case OP_SKIP:
+                        handler.onSkip(kind, target, elapsedMillis, wallMillis);
+                        break;
+                    case OP_TIMER:
+                        handler.onTimer(kind, elapsedMillis);
+                        break;
+                    default:
+                        break;
+                }
+                count++;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Konnte Journal-Segment nicht lesen: " + segment.getName());
+        }
+        
+        return count;
+    }
+}
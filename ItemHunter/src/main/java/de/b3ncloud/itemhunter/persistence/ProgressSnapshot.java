@@ -0,0 +1,339 @@
+package de.b3ncloud.itemhunter.persistence;
+
+import de.b3ncloud.itemhunter.ItemHunter;
+import de.b3ncloud.itemhunter.managers.AchievementManager;
+import de.b3ncloud.itemhunter.managers.ItemManager;
+import de.b3ncloud.itemhunter.managers.MobManager;
+import de.b3ncloud.itemhunter.managers.TimerManager;
+import de.b3ncloud.itemhunter.progress.PlayerRegistry;
+import de.b3ncloud.itemhunter.progress.Timeline;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.EntityType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Unveränderliche Kopie des Challenge-Fortschritts.
+ * Wird auf dem Main-Thread erstellt (nur Kopieren) und im Hintergrund serialisiert.
+ * Ziele werden über stabile Namen referenziert (Material-/EntityType-Name, Advancement-Key),
+ * damit Dateien Server-Updates überstehen. Spieler stehen mit UUID und letztem Namen drin,
+ * die IDs der PlayerRegistry gelten nur für die laufende Sitzung.
+ */
+public final class ProgressSnapshot {
+
+    /**
+     * Ein gefundenes Ziel in Fund-Reihenfolge
+     */
+    public static final class Entry {
+        private final String target;
+        private final String finder;
+        private final UUID finderUuid;
+        private final long elapsedMillis;
+        
+        public Entry(String target, String finder, UUID finderUuid, long elapsedMillis) {
+            this.target = target;
+            this.finder = finder;
+            this.finderUuid = finderUuid;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        public String getTarget() {
+            return target;
+        }
+        
+        /**
+         * Spielername, oder null wenn unbekannt
+         */
+        public String getFinder() {
+            return finder;
+        }
+        
+        /**
+         * UUID des Spielers, oder null (unbekannt, "SKIP", migrierte Namen)
+         */
+        public UUID getFinderUuid() {
+            return finderUuid;
+        }
+        
+        /**
+         * Timer-Millisekunden zum Zeitpunkt des Funds
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+        
+        private int playerId(PlayerRegistry registry) {
+            return registry.idOf(finderUuid, finder);
+        }
+        
+        private boolean isSkip() {
+            return finderUuid == null && ItemManager.SKIP_FINDER.equals(finder);
+        }
+    }
+    
+    /**
+     * Ein Event der Zeitleiste, verweist auf einen Eintrag der Sektion seiner Art
+     */
+    public static final class Split {
+        private final byte kind;
+        private final int entry;
+        private final long elapsedMillis;
+        private final long wallMillis;
+        private final boolean skipped;
+        
+        public Split(byte kind, int entry, long elapsedMillis, long wallMillis, boolean skipped) {
+            this.kind = kind;
+            this.entry = entry;
+            this.elapsedMillis = elapsedMillis;
+            this.wallMillis = wallMillis;
+            this.skipped = skipped;
+        }
+        
+        /**
+         * ProgressJournal.KIND_* - wählt die Sektion (Items, Mobs, Advancements)
+         */
+        public byte getKind() {
+            return kind;
+        }
+        
+        /**
+         * Position in der Sektion
+         */
+        public int getEntry() {
+            return entry;
+        }
+        
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+        
+        public long getWallMillis() {
+            return wallMillis;
+        }
+        
+        public boolean isSkipped() {
+            return skipped;
+        }
+    }
+    
+    private final List<Entry> items;
+    private final List<Entry> mobs;
+    private final List<Entry> advancements;
+    private final List<Split> splits;
+    
+    private final boolean timerRunning;
+    private final boolean timerPaused;
+    private final long elapsedMillis;
+    
+    public ProgressSnapshot(List<Entry> items, List<Entry> mobs, List<Entry> advancements, List<Split> splits,
+                            boolean timerRunning, boolean timerPaused, long elapsedMillis) {
+        this.items = Collections.unmodifiableList(items);
+        this.mobs = Collections.unmodifiableList(mobs);
+        this.advancements = Collections.unmodifiableList(advancements);
+        this.splits = Collections.unmodifiableList(splits);
+        this.timerRunning = timerRunning;
+        this.timerPaused = timerPaused;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    /**
+     * Kopiert den aktuellen Stand aller Manager (Main-Thread)
+     */
+    public static ProgressSnapshot capture(ItemHunter plugin) {
+        ItemManager itemManager = plugin.getItemManager();
+        MobManager mobManager = plugin.getMobManager();
+        AchievementManager achievementManager = plugin.getAchievementManager();
+        TimerManager timerManager = plugin.getTimerManager();
+        PlayerRegistry registry = plugin.getPlayerRegistry();
+        
+        // Position jedes Ziels in seiner Sektion (für die Verweise der Zeitleiste)
+        int[][] entryOf = {
+                new int[Material.values().length],
+                new int[EntityType.values().length],
+                new int[plugin.getCatalog().getAdvancements().size()]
+        };
+        for (int[] positions : entryOf) {
+            Arrays.fill(positions, -1);
+        }
+        
+        List<Entry> items = new ArrayList<>(itemManager.getFoundCount());
+        for (Material material : itemManager.getFoundItems()) {
+            entryOf[ProgressJournal.KIND_ITEM][material.ordinal()] = items.size();
+            items.add(entry(registry, material.name(), itemManager.getItemFinderId(material),
+                    itemManager.getItemFoundMillis(material)));
+        }
+        
+        List<Entry> mobs = new ArrayList<>(mobManager.getKilledCount());
+        for (EntityType type : mobManager.getKilledMobs()) {
+            entryOf[ProgressJournal.KIND_MOB][type.ordinal()] = mobs.size();
+            mobs.add(entry(registry, type.name(), mobManager.getMobKillerId(type), mobManager.getMobKillMillis(type)));
+        }
+        
+        List<Entry> advancements = new ArrayList<>(achievementManager.getCompletedCount());
+        for (NamespacedKey key : achievementManager.getCompletedAdvancements()) {
+            int index = plugin.getCatalog().indexOfAdvancement(key);
+            if (index >= 0) {
+                entryOf[ProgressJournal.KIND_ADVANCEMENT][index] = advancements.size();
+            }
+            advancements.add(entry(registry, key.toString(), achievementManager.getAdvancementCompleterId(key),
+                    achievementManager.getAdvancementMillis(key)));
+        }
+        
+        Timeline timeline = plugin.getTimeline();
+        List<Split> splits = new ArrayList<>(timeline.size());
+        for (int i = 0; i < timeline.size(); i++) {
+            byte kind = timeline.getKind(i);
+            int target = timeline.getTarget(i);
+            if (kind < 0 || kind >= entryOf.length || target < 0 || target >= entryOf[kind].length) continue;
+            if (entryOf[kind][target] < 0) continue;
+            
+            splits.add(new Split(kind, entryOf[kind][target], timeline.getElapsedMillis(i),
+                    timeline.getWallMillis(i), timeline.isSkipped(i)));
+        }
+        
+        return new ProgressSnapshot(items, mobs, advancements, splits,
+                timerManager.isActive(), timerManager.isPaused(), timerManager.getElapsedMillis());
+    }
+    
+    private static Entry entry(PlayerRegistry registry, String target, int playerId, long elapsedMillis) {
+        if (playerId == PlayerRegistry.NO_PLAYER) {
+            return new Entry(target, null, null, elapsedMillis);
+        }
+        return new Entry(target, registry.nameOf(playerId), registry.uuidOf(playerId), elapsedMillis);
+    }
+    
+    /**
+     * Ersetzt den Fortschritt aller Manager durch diesen Snapshot (Main-Thread)
+     */
+    public void apply(ItemHunter plugin) {
+        ItemManager itemManager = plugin.getItemManager();
+        MobManager mobManager = plugin.getMobManager();
+        AchievementManager achievementManager = plugin.getAchievementManager();
+        PlayerRegistry registry = plugin.getPlayerRegistry();
+        
+        itemManager.initializeItems();
+        mobManager.initializeMobs();
+        achievementManager.initializeAdvancements();
+        
+        // Ziel und Spieler jedes Eintrags (-1 = Ziel existiert nicht mehr) für die Zeitleiste
+        int[][] targets = {new int[items.size()], new int[mobs.size()], new int[advancements.size()]};
+        int[][] playerIds = {new int[items.size()], new int[mobs.size()], new int[advancements.size()]};
+        
+        for (int i = 0; i < items.size(); i++) {
+            Entry entry = items.get(i);
+            Material material = Material.getMaterial(entry.target);
+            targets[ProgressJournal.KIND_ITEM][i] = material != null ? material.ordinal() : -1;
+            playerIds[ProgressJournal.KIND_ITEM][i] = entry.playerId(registry);
+            if (material != null) {
+                itemManager.restoreFound(material, playerIds[ProgressJournal.KIND_ITEM][i], entry.elapsedMillis);
+            }
+        }
+        
+        for (int i = 0; i < mobs.size(); i++) {
+            Entry entry = mobs.get(i);
+            targets[ProgressJournal.KIND_MOB][i] = -1;
+            playerIds[ProgressJournal.KIND_MOB][i] = entry.playerId(registry);
+            try {
+                EntityType type = EntityType.valueOf(entry.target);
+                mobManager.restoreKilled(type, playerIds[ProgressJournal.KIND_MOB][i], entry.elapsedMillis);
+                targets[ProgressJournal.KIND_MOB][i] = type.ordinal();
+            } catch (IllegalArgumentException e) {
+                // Mob existiert in dieser Version nicht mehr
+            }
+        }
+        
+        for (int i = 0; i < advancements.size(); i++) {
+            Entry entry = advancements.get(i);
+            NamespacedKey key = NamespacedKey.fromString(entry.target);
+            targets[ProgressJournal.KIND_ADVANCEMENT][i] = key != null ? plugin.getCatalog().indexOfAdvancement(key) : -1;
+            playerIds[ProgressJournal.KIND_ADVANCEMENT][i] = entry.playerId(registry);
+            if (key != null) {
+                achievementManager.restoreCompleted(key, playerIds[ProgressJournal.KIND_ADVANCEMENT][i], entry.elapsedMillis);
+            }
+        }
+        
+        restoreTimeline(plugin.getTimeline(), targets, playerIds);
+        
+        plugin.getTimerManager().restoreState(timerRunning, timerPaused, elapsedMillis);
+    }
+    
+    private void restoreTimeline(Timeline timeline, int[][] targets, int[][] playerIds) {
+        timeline.clear();
+        
+        if (!splits.isEmpty()) {
+            for (Split split : splits) {
+                if (split.kind < 0 || split.kind >= targets.length) continue;
+                if (split.entry < 0 || split.entry >= targets[split.kind].length) continue;
+                
+                int target = targets[split.kind][split.entry];
+                if (target >= 0) {
+                    timeline.record(split.kind, target, playerIds[split.kind][split.entry],
+                            split.elapsedMillis, split.wallMillis, split.skipped);
+                }
+            }
+            return;
+        }
+        
+        // Handgeschriebene YAML-Dateien ohne splits: aus den Einträgen ableiten (ohne Uhrzeit)
+        List<Entry>[] sections = sections();
+        List<int[]> order = new ArrayList<>();
+        for (int kind = 0; kind < sections.length; kind++) {
+            for (int i = 0; i < sections[kind].size(); i++) {
+                if (targets[kind][i] >= 0) {
+                    order.add(new int[]{kind, i});
+                }
+            }
+        }
+        order.sort(Comparator.comparingLong(position -> sections[position[0]].get(position[1]).elapsedMillis));
+        
+        for (int[] position : order) {
+            Entry entry = sections[position[0]].get(position[1]);
+            timeline.record((byte) position[0], targets[position[0]][position[1]], playerIds[position[0]][position[1]],
+                    entry.elapsedMillis, 0L, entry.isSkip());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<Entry>[] sections() {
+        return new List[]{items, mobs, advancements};
+    }
+    
+    // ============ GETTER ============
+    
+    public List<Entry> getItems() {
+        return items;
+    }
+    
+    public List<Entry> getMobs() {
+        return mobs;
+    }
+    
+    public List<Entry> getAdvancements() {
+        return advancements;
+    }
+    
+    /**
+     * Zeitleiste in Reihenfolge, leer bei Dateien ohne Zeitleiste
+     */
+    public List<Split> getSplits() {
+        return splits;
+    }
+    
+    public boolean isTimerRunning() {
+        return timerRunning;
+    }
+    
+    public boolean isTimerPaused() {
+        return timerPaused;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
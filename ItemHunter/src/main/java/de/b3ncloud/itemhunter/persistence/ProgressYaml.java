@@ -0,0 +1,132 @@
+package de.b3ncloud.itemhunter.persistence;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lesbares YAML-Format für /itemhunt export und /itemhunt import.
+ * Einträge sind Listen von Maps - Advancement-Keys bleiben dadurch unverändert.
+ * Alle Zeiten in Timer-Millisekunden, die Zeitleiste ("splits") zusätzlich mit Uhrzeit.
+ * Splits verweisen per Art und Position auf die Einträge; fehlen sie (handgeschriebene Dateien),
+ * wird die Zeitleiste beim Laden aus den Einträgen abgeleitet.
+ */
+public final class ProgressYaml {
+
+    private static final int FORMAT_VERSION = 1;
+    
+    // Art eines Splits, Index = ProgressJournal.KIND_*
+    private static final String[] KIND_NAMES = {"item", "mob", "advancement"};
+    
+    private ProgressYaml() {
+    }
+    
+    public static String encode(ProgressSnapshot snapshot) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("format", FORMAT_VERSION);
+        
+        config.set("timer.running", snapshot.isTimerRunning());
+        config.set("timer.paused", snapshot.isTimerPaused());
+        config.set("timer.elapsed-millis", snapshot.getElapsedMillis());
+        
+        config.set("items", toMaps(snapshot.getItems()));
+        config.set("mobs", toMaps(snapshot.getMobs()));
+        config.set("advancements", toMaps(snapshot.getAdvancements()));
+        config.set("splits", splitsToMaps(snapshot.getSplits()));
+        
+        return config.saveToString();
+    }
+    
+    public static ProgressSnapshot decode(YamlConfiguration config) {
+        return new ProgressSnapshot(
+                fromMaps(config.getMapList("items")),
+                fromMaps(config.getMapList("mobs")),
+                fromMaps(config.getMapList("advancements")),
+                splitsFromMaps(config.getMapList("splits")),
+                config.getBoolean("timer.running", false),
+                config.getBoolean("timer.paused", false),
+                config.getLong("timer.elapsed-millis", 0));
+    }
+    
+    private static List<Map<String, Object>> toMaps(List<ProgressSnapshot.Entry> entries) {
+        List<Map<String, Object>> maps = new ArrayList<>(entries.size());
+        for (ProgressSnapshot.Entry entry : entries) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("target", entry.getTarget());
+            if (entry.getFinder() != null) {
+                map.put("by", entry.getFinder());
+            }
+            if (entry.getFinderUuid() != null) {
+                map.put("uuid", entry.getFinderUuid().toString());
+            }
+            map.put("elapsed-millis", entry.getElapsedMillis());
+            maps.add(map);
+        }
+        return maps;
+    }
+    
+    private static List<ProgressSnapshot.Entry> fromMaps(List<Map<?, ?>> maps) {
+        List<ProgressSnapshot.Entry> entries = new ArrayList<>(maps.size());
+        for (Map<?, ?> map : maps) {
+            Object target = map.get("target");
+            if (target == null) continue;
+            
+            Object finder = map.get("by");
+            Object uuid = map.get("uuid");
+            Object time = map.get("elapsed-millis");
+            entries.add(new ProgressSnapshot.Entry(target.toString(),
+                    finder != null ? finder.toString() : null,
+                    uuid != null ? parseUuid(uuid.toString()) : null,
+                    time instanceof Number ? ((Number) time).longValue() : 0));
+        }
+        return entries;
+    }
+    
+    private static List<Map<String, Object>> splitsToMaps(List<ProgressSnapshot.Split> splits) {
+        List<Map<String, Object>> maps = new ArrayList<>(splits.size());
+        for (ProgressSnapshot.Split split : splits) {
+            if (split.getKind() < 0 || split.getKind() >= KIND_NAMES.length) continue;
+            
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("kind", KIND_NAMES[split.getKind()]);
+            map.put("entry", split.getEntry());
+            map.put("elapsed-millis", split.getElapsedMillis());
+            map.put("wall-millis", split.getWallMillis());
+            if (split.isSkipped()) {
+                map.put("skipped", true);
+            }
+            maps.add(map);
+        }
+        return maps;
+    }
+    
+    private static List<ProgressSnapshot.Split> splitsFromMaps(List<Map<?, ?>> maps) {
+        List<ProgressSnapshot.Split> splits = new ArrayList<>(maps.size());
+        for (Map<?, ?> map : maps) {
+            byte kind = (byte) Arrays.asList(KIND_NAMES).indexOf(String.valueOf(map.get("kind")));
+            Object entry = map.get("entry");
+            if (kind < 0 || !(entry instanceof Number)) continue;
+            
+            Object elapsed = map.get("elapsed-millis");
+            Object wall = map.get("wall-millis");
+            splits.add(new ProgressSnapshot.Split(kind, ((Number) entry).intValue(),
+                    elapsed instanceof Number ? ((Number) elapsed).longValue() : 0,
+                    wall instanceof Number ? ((Number) wall).longValue() : 0,
+                    Boolean.TRUE.equals(map.get("skipped"))));
+        }
+        return splits;
+    }
+    
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package de.b3ncloud.itemhunter.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * Timer-Stand in einer kleinen memory-mapped Datei (timer.ckpt).
+ *
+ * Feste Struktur ohne Serialisierung: jeder Schreibvorgang ändert nur ein paar Bytes in der
+ * gemappten Seite, das Betriebssystem schreibt sie selbst zurück - auch wenn die JVM abstürzt.
+ * Zwei Slots werden abwechselnd beschrieben und sind über eine Sequenznummer (Seqlock) geschützt:
+ * ungerade = Schreiben läuft. Ein halb geschriebener Slot wird beim Lesen verworfen,
+ * der andere enthält dann den vorherigen Stand.
+ * <pre>
+ * int  Magic "IHTC"
+ * int  Format-Version
+ * 2x Slot (je 32 Bytes):
+ *   long Sequenz
+ *   int  Flags (1 = läuft, 2 = pausiert)
+ *   int  reserviert
+ *   long Challenge-Zeit in Nanosekunden
+ *   long Uhrzeit des Schreibens (Millisekunden)
+ * </pre>
+ */
+public class TimerCheckpoint {
+
+    private static final int MAGIC = 0x49485443; // "IHTC"
+    private static final int FORMAT_VERSION = 1;
+    
+    private static final int HEADER_SIZE = 8;
+    private static final int SLOT_SIZE = 32;
+    private static final int FILE_SIZE = HEADER_SIZE + 2 * SLOT_SIZE;
+    
+    private static final int FLAG_RUNNING = 1;
+    private static final int FLAG_PAUSED = 2;
+    
+    /**
+     * Gelesener Timer-Stand
+     */
+    public static final class State {
+        private final boolean running;
+        private final boolean paused;
+        private final long elapsedNanos;
+        
+        private State(boolean running, boolean paused, long elapsedNanos) {
+            this.running = running;
+            this.paused = paused;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        public boolean isRunning() {
+            return running;
+        }
+        
+        public boolean isPaused() {
+            return paused;
+        }
+        
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+    
+    private final File file;
+    private final Logger logger;
+    
+    private MappedByteBuffer buffer;
+    private long sequence = 0;
+    
+    public TimerCheckpoint(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+    
+    /**
+     * Mappt die Datei (legt sie bei Bedarf an). Ohne Datei laufen write/read ins Leere.
+     */
+    public synchronized void open() {
+        if (buffer != null) return;
+        
+        try {
+            File parent = file.getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            
+            // Der Channel darf nach dem Mappen geschlossen werden, das Mapping bleibt gültig
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            }
+            
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                // Neue oder fremde Datei: leeren, danach den Header schreiben
+                for (int i = 0; i < FILE_SIZE; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, FORMAT_VERSION);
+            }
+            
+            sequence = Math.max(sequence(0), sequence(1)) & ~1L;
+        } catch (IOException e) {
+            logger.warning("Konnte timer.ckpt nicht öffnen: " + e.getMessage());
+            buffer = null;
+        }
+    }
+    
+    // ============ SCHREIBEN ============
+    
+    /**
+     * Schreibt den Timer-Stand in den älteren Slot (nur Speicherzugriffe, kein Syscall)
+     */
+    public synchronized void write(boolean running, boolean paused, long elapsedNanos) {
+        if (buffer == null) return;
+        
+        sequence += 2;
+        int slot = (int) ((sequence >>> 1) & 1);
+        int base = HEADER_SIZE + slot * SLOT_SIZE;
+        
+        buffer.putLong(base, sequence - 1);
+        buffer.putInt(base + 8, (running ? FLAG_RUNNING : 0) | (paused ? FLAG_PAUSED : 0));
+        buffer.putLong(base + 16, elapsedNanos);
+        buffer.putLong(base + 24, System.currentTimeMillis());
+        buffer.putLong(base, sequence);
+    }
+    
+    // ============ LESEN ============
+    
+    /**
+     * Neuester vollständig geschriebener Stand, oder null
+     */
+    public synchronized State read() {
+        if (buffer == null) return null;
+        
+        State newest = null;
+        long newestSequence = 0;
+        for (int slot = 0; slot < 2; slot++) {
+            int base = HEADER_SIZE + slot * SLOT_SIZE;
+            long before = buffer.getLong(base);
+            if (before == 0 || (before & 1) != 0 || before <= newestSequence) continue;
+            
+            int flags = buffer.getInt(base + 8);
+            long elapsedNanos = buffer.getLong(base + 16);
+            if (buffer.getLong(base) != before) continue;
+            
+            newest = new State((flags & FLAG_RUNNING) != 0, (flags & FLAG_PAUSED) != 0, elapsedNanos);
+            newestSequence = before;
+        }
+        return newest;
+    }
+    
+    /**
+     * Schreibt die Seite auf die Platte (nur beim Beenden) und gibt das Mapping frei
+     */
+    public synchronized void close() {
+        if (buffer == null) return;
+        
+        buffer.force();
+        buffer = null;
+    }
+    
+    private long sequence(int slot) {
+        return buffer.getLong(HEADER_SIZE + slot * SLOT_SIZE);
+    }
+}
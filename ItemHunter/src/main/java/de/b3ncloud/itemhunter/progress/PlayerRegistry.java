@@ -0,0 +1,121 @@
+package de.b3ncloud.itemhunter.progress;
+
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vergibt kompakte int-IDs für Spieler (UUID → ID) und merkt sich den zuletzt bekannten Namen.
+ * Die Manager speichern nur noch diese IDs; Namen werden erst bei der Anzeige aufgelöst.
+ * Einträge ohne UUID (z.B. "SKIP" oder migrierte Namen) werden über den Namen geführt.
+ *
+ * Auf Folia fragen viele Region-Threads gleichzeitig IDs ab: bekannte Spieler mit unverändertem
+ * Namen und die Namens-Auflösung laufen ohne Lock (ConcurrentHashMap und volatile Arrays).
+ * Nur neue Spieler und Umbenennungen schreiben unter this; die Anzahl wird erst nach den
+ * Einträgen veröffentlicht, sodass Leser nie einen halb angelegten Eintrag sehen.
+ */
+public class PlayerRegistry {
+
+    public static final int NO_PLAYER = ProgressState.NO_FINDER;
+    public static final String UNKNOWN_NAME = "Unbekannt";
+    
+    // ID → UUID (null bei reinen Namens-Einträgen) und letzter Name, wachsen nur unter this
+    private volatile UUID[] uuids = new UUID[16];
+    private volatile String[] names = new String[16];
+    private volatile int size = 0;
+    
+    private final Map<UUID, Integer> byUuid = new ConcurrentHashMap<>();
+    private final Map<String, Integer> byName = new HashMap<>();
+    
+    public int idOf(Player player) {
+        return idOf(player.getUniqueId(), player.getName());
+    }
+    
+    /**
+     * ID eines Spielers, legt ihn bei Bedarf an und aktualisiert den Namen
+     */
+    public int idOf(UUID uuid, String name) {
+        if (uuid == null) return idOfName(name);
+        
+        // Normalfall ohne Lock: bekannter Spieler, Name unverändert
+        Integer id = byUuid.get(uuid);
+        if (id != null && (name == null || name.equals(names[id]))) {
+            return id;
+        }
+        return register(uuid, name);
+    }
+    
+    /**
+     * ID für einen Eintrag ohne UUID (Pseudo-Spieler wie "SKIP", alte Dateien)
+     */
+    public synchronized int idOfName(String name) {
+        if (name == null) return NO_PLAYER;
+        
+        Integer id = byName.get(name);
+        if (id == null) {
+            id = add(null, name);
+            byName.put(name, id);
+        }
+        return id;
+    }
+    
+    /**
+     * Aktualisiert den Namen eines bekannten Spielers (z.B. nach Umbenennung beim Join)
+     */
+    public synchronized void updateName(Player player) {
+        Integer id = byUuid.get(player.getUniqueId());
+        if (id != null) {
+            names[id] = player.getName();
+        }
+    }
+    
+    public String nameOf(int id) {
+        // Anzahl vor dem Array lesen: das Array ist mindestens so groß
+        int count = size;
+        String[] current = names;
+        return id >= 0 && id < count ? current[id] : UNKNOWN_NAME;
+    }
+    
+    /**
+     * UUID eines Spielers, oder null bei reinen Namens-Einträgen
+     */
+    public UUID uuidOf(int id) {
+        int count = size;
+        UUID[] current = uuids;
+        return id >= 0 && id < count ? current[id] : null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Langsamer Weg: neuer Spieler oder geänderter Name
+     */
+    private synchronized int register(UUID uuid, String name) {
+        Integer id = byUuid.get(uuid);
+        if (id == null) {
+            id = add(uuid, name != null ? name : UNKNOWN_NAME);
+            byUuid.put(uuid, id);
+        } else if (name != null) {
+            names[id] = name;
+        }
+        return id;
+    }
+    
+    private int add(UUID uuid, String name) {
+        int id = size;
+        if (id == names.length) {
+            uuids = Arrays.copyOf(uuids, id * 2);
+            names = Arrays.copyOf(names, id * 2);
+        }
+        uuids[id] = uuid;
+        names[id] = name;
+        size = id + 1;
+        return id;
+    }
+}
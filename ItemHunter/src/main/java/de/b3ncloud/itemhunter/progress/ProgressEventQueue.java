@@ -0,0 +1,115 @@
+package de.b3ncloud.itemhunter.progress;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Begrenzter Ringpuffer für Fortschritts-Events: viele Produzenten, genau ein Konsument.
+ *
+ * Listener (auf Folia von beliebigen Region-Threads) reihen nur feste Events ein
+ * (Art, Ziel, Spieler-ID, Timer-Zeit), der Konsument arbeitet sie einmal pro Tick ab.
+ * Ablauf pro Slot über eine Sequenznummer: Produzenten reservieren per compare-and-set auf
+ * dem Tail, schreiben den Slot und geben ihn über die Sequenz frei. Der Konsument liest
+ * nur freigegebene Slots und gibt sie danach für die nächste Runde zurück.
+ */
+public class ProgressEventQueue {
+
+    /**
+     * Verarbeitet ein Event beim Abarbeiten der Queue
+     */
+    public interface Handler {
+        void onEvent(byte kind, int target, int playerId, long elapsedMillis);
+    }
+    
+    private final int capacity;
+    private final int mask;
+    
+    // Slots als parallele Arrays (keine Objekte pro Event)
+    private final byte[] kinds;
+    private final int[] targets;
+    private final int[] players;
+    private final long[] times;
+    
+    // Sequenz pro Slot: == Position → frei, == Position + 1 → lesbar
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    
+    // Nur vom Konsumenten gelesen und geschrieben
+    private long head = 0;
+    
+    /**
+     * @param capacity gewünschte Größe, wird auf die nächste Zweierpotenz aufgerundet
+     */
+    public ProgressEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.kinds = new byte[size];
+        this.targets = new int[size];
+        this.players = new int[size];
+        this.times = new long[size];
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequence.set(i, i);
+        }
+    }
+    
+    // ============ PRODUZENTEN ============
+    
+    /**
+     * Reiht ein Event ein (lock-frei, ohne Allokation)
+     * @return false wenn der Puffer voll ist
+     */
+    public boolean offer(byte kind, int target, int playerId, long elapsedMillis) {
+        long position;
+        int slot;
+        while (true) {
+            position = tail.get();
+            slot = (int) position & mask;
+            long diff = sequence.get(slot) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+            } else if (diff < 0) {
+                // Slot noch nicht vom Konsumenten zurückgegeben
+                return false;
+            }
+        }
+        
+        kinds[slot] = kind;
+        targets[slot] = target;
+        players[slot] = playerId;
+        times[slot] = elapsedMillis;
+        sequence.lazySet(slot, position + 1);
+        return true;
+    }
+    
+    // ============ KONSUMENT ============
+    
+    /**
+     * Arbeitet alle freigegebenen Events ab (nur von einem Thread aufrufen).
+     * Höchstens eine Pufferlänge pro Aufruf, damit schnelle Produzenten den Tick nicht blockieren.
+     * @return Anzahl verarbeiteter Events
+     */
+    public int drain(Handler handler) {
+        int count = 0;
+        while (count < capacity) {
+            int slot = (int) head & mask;
+            if (sequence.get(slot) != head + 1) break;
+            
+            byte kind = kinds[slot];
+            int target = targets[slot];
+            int playerId = players[slot];
+            long elapsedMillis = times[slot];
+            sequence.lazySet(slot, head + capacity);
+            head++;
+            count++;
+            
+            handler.onEvent(kind, target, playerId, elapsedMillis);
+        }
+        return count;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+}
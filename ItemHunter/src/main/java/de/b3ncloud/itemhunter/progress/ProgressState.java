@@ -0,0 +1,347 @@
+package de.b3ncloud.itemhunter.progress;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fortschritts-Zustand einer Ziel-Art, indiziert über die Ordinalzahl.
+ * Hält Required- und Found-Bitmap, die Fund-Reihenfolge, den Finder-Index und die Fund-Zeit.
+ * Prüfungen und Zähler arbeiten ohne Allokation.
+ *
+ * Thread-sicher für Folia (Funde kommen von vielen Region-Threads gleichzeitig):
+ * Ein Fund wird per compare-and-set auf der Claimed-Bitmap beansprucht, sodass genau ein
+ * Spieler jedes Ziel gewinnt. Finder und Zeit werden danach geschrieben und erst über das
+ * Setzen des Found-Bits veröffentlicht. Der Found-Zähler ist ein LongAdder.
+ * Das Found-Bit wird im selben synchronized-Block gesetzt, der den Fenwick-Baum verringert,
+ * damit Baum und Found-Bitmap für sortierte Seiten nie auseinanderlaufen.
+ * Required-Bitmap, Resets und die Anzeige-Reihenfolge ändern sich nur auf dem Main-Thread,
+ * während keine Challenge läuft.
+ *
+ * Optional kann eine feste Anzeige-Reihenfolge (z.B. nach Name) gesetzt werden. Darüber liegt
+ * ein Fenwick-Baum der offenen Ziele, sodass eine Seite "offen, sortiert" per Rank/Select
+ * direkt adressiert wird statt jedes Mal alles zu kopieren und zu sortieren.
+ */
+public class ProgressState {
+
+    public static final int NO_FINDER = -1;
+    
+    private final int capacity;
+    
+    // Bitmaps (64 Ziele pro Wort): claimed = beansprucht, found = veröffentlicht
+    private final long[] required;
+    private final AtomicLongArray claimed;
+    private final AtomicLongArray found;
+    
+    // Ordinalzahlen in Fund-Reihenfolge (-1 = Platz reserviert, noch nicht geschrieben)
+    private final AtomicIntegerArray foundOrder;
+    private final AtomicInteger foundOrderLength = new AtomicInteger();
+    
+    // Finder-Index pro Ordinalzahl (gültig sobald das Found-Bit gesetzt ist)
+    private final int[] finder;
+    
+    // Timer-Millisekunden beim Fund pro Ordinalzahl (gültig sobald das Found-Bit gesetzt ist)
+    private final long[] foundMillis;
+    
+    private volatile int requiredCount = 0;
+    private final LongAdder foundCount = new LongAdder();
+    
+    // Anzeige-Reihenfolge (Ordinalzahlen) und Position jeder Ordinalzahl darin (-1 = nicht enthalten)
+    private int[] sortOrder;
+    private int[] sortPosition;
+    
+    // Fenwick-Baum über die Positionen der Anzeige-Reihenfolge: 1 = noch offen (geschützt über this)
+    private int[] pendingTree;
+    private boolean pendingTreeDirty = true;
+    
+    public ProgressState(int capacity) {
+        this.capacity = capacity;
+        this.required = new long[(capacity + 63) >>> 6];
+        this.claimed = new AtomicLongArray(required.length);
+        this.found = new AtomicLongArray(required.length);
+        this.foundOrder = new AtomicIntegerArray(capacity);
+        this.finder = new int[capacity];
+        this.foundMillis = new long[capacity];
+        Arrays.fill(finder, NO_FINDER);
+        for (int i = 0; i < capacity; i++) {
+            foundOrder.set(i, -1);
+        }
+    }
+    
+    // ============ REQUIRED ============
+    
+    public synchronized void setRequired(int ordinal) {
+        if (ordinal < 0 || ordinal >= capacity) return;
+        long bit = 1L << ordinal;
+        int word = ordinal >>> 6;
+        if ((required[word] & bit) == 0) {
+            required[word] |= bit;
+            requiredCount++;
+            pendingTreeDirty = true;
+        }
+    }
+    
+    /**
+     * Leert Required- und Found-Bitmap komplett
+     */
+    public synchronized void clearRequired() {
+        Arrays.fill(required, 0L);
+        requiredCount = 0;
+        clearFound();
+    }
+    
+    public boolean isRequired(int ordinal) {
+        return ordinal >= 0 && ordinal < capacity && (required[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+    
+    // ============ FOUND ============
+    
+    public boolean isFound(int ordinal) {
+        return ordinal >= 0 && ordinal < capacity && (found.get(ordinal >>> 6) & (1L << ordinal)) != 0;
+    }
+    
+    /**
+     * Benötigt und noch nicht beansprucht (lock-frei, ohne Allokation)
+     */
+    public boolean isPending(int ordinal) {
+        if (ordinal < 0 || ordinal >= capacity) return false;
+        int word = ordinal >>> 6;
+        return ((required[word] & ~claimed.get(word)) & (1L << ordinal)) != 0;
+    }
+    
+    /**
+     * Markiert ein Ziel als gefunden. Bei gleichzeitigen Aufrufen gewinnt genau einer.
+     * @return false wenn das Ziel nicht benötigt wird oder bereits gefunden ist
+     */
+    public boolean markFound(int ordinal, int finderIndex, long elapsedMillis) {
+        if (!isRequired(ordinal)) return false;
+        
+        // Beanspruchen: nur der erfolgreiche compare-and-set darf weitermachen
+        int word = ordinal >>> 6;
+        long bit = 1L << ordinal;
+        long current;
+        do {
+            current = claimed.get(word);
+            if ((current & bit) != 0) return false;
+        } while (!claimed.compareAndSet(word, current, current | bit));
+        
+        finder[ordinal] = finderIndex;
+        foundMillis[ordinal] = elapsedMillis;
+        int slot = foundOrderLength.getAndIncrement();
+        foundOrder.set(slot, ordinal);
+        
+        // Veröffentlichen: wer das Found-Bit sieht, sieht auch Finder und Zeit.
+        // Zusammen mit dem Baum, sonst sieht eine Seite das Bit ohne die verringerte Summe
+        synchronized (this) {
+            do {
+                current = found.get(word);
+            } while (!found.compareAndSet(word, current, current | bit));
+            
+            if (!pendingTreeDirty && sortPosition != null && sortPosition[ordinal] >= 0) {
+                for (int i = sortPosition[ordinal] + 1; i < pendingTree.length; i += i & -i) {
+                    pendingTree[i]--;
+                }
+            }
+        }
+        foundCount.increment();
+        return true;
+    }
+    
+    public synchronized void clearFound() {
+        for (int i = 0; i < required.length; i++) {
+            claimed.set(i, 0L);
+            found.set(i, 0L);
+        }
+        for (int i = 0; i < capacity; i++) {
+            foundOrder.set(i, -1);
+        }
+        Arrays.fill(finder, NO_FINDER);
+        foundOrderLength.set(0);
+        foundCount.reset();
+        pendingTreeDirty = true;
+    }
+    
+    public int getFinder(int ordinal) {
+        if (ordinal < 0 || ordinal >= capacity) return NO_FINDER;
+        return finder[ordinal];
+    }
+    
+    /**
+     * Timer-Millisekunden zum Zeitpunkt des Funds
+     */
+    public long getFoundMillis(int ordinal) {
+        if (ordinal < 0 || ordinal >= capacity) return 0;
+        return foundMillis[ordinal];
+    }
+    
+    /**
+     * Ordinalzahlen aller veröffentlichten Funde in Fund-Reihenfolge (Kopie)
+     */
+    public int[] getFoundOrder() {
+        int length = Math.min(foundOrderLength.get(), capacity);
+        int[] order = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int ordinal = foundOrder.get(i);
+            // Reservierte aber noch nicht veröffentlichte Plätze überspringen
+            if (ordinal >= 0 && isFound(ordinal)) {
+                order[count++] = ordinal;
+            }
+        }
+        return count == length ? order : Arrays.copyOf(order, count);
+    }
+    
+    // ============ ZÄHLER ============
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public int getRequiredCount() {
+        return requiredCount;
+    }
+    
+    public int getFoundCount() {
+        return (int) foundCount.sum();
+    }
+    
+    public int getRemainingCount() {
+        return requiredCount - getFoundCount();
+    }
+    
+    // ============ ITERATION ============
+    
+    /**
+     * Nächstes benötigtes Ziel ab (inklusive) from, oder -1
+     */
+    public int nextRequired(int from) {
+        return next(from, false);
+    }
+    
+    /**
+     * Nächstes noch offenes Ziel ab (inklusive) from, oder -1
+     */
+    public int nextRemaining(int from) {
+        return next(from, true);
+    }
+    
+    private int next(int from, boolean remainingOnly) {
+        if (from < 0) from = 0;
+        if (from >= capacity) return -1;
+        
+        int word = from >>> 6;
+        long bits = wordAt(word, remainingOnly) & (-1L << from);
+        
+        while (true) {
+            if (bits != 0) {
+                int ordinal = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return ordinal < capacity ? ordinal : -1;
+            }
+            if (++word >= required.length) return -1;
+            bits = wordAt(word, remainingOnly);
+        }
+    }
+    
+    // ============ SORTIERTE SEITEN ============
+    
+    /**
+     * Setzt die feste Anzeige-Reihenfolge für getRemainingSorted()
+     * @param order Ordinalzahlen in Anzeige-Reihenfolge, jede höchstens einmal
+     */
+    public synchronized void setSortOrder(int[] order) {
+        sortOrder = order.clone();
+        sortPosition = new int[capacity];
+        Arrays.fill(sortPosition, -1);
+        for (int i = 0; i < sortOrder.length; i++) {
+            sortPosition[sortOrder[i]] = i;
+        }
+        pendingTree = new int[sortOrder.length + 1];
+        pendingTreeDirty = true;
+    }
+    
+    /**
+     * Anzahl offener Ziele in der Anzeige-Reihenfolge (O(1) bis auf seltenen Neuaufbau)
+     */
+    public synchronized int getRemainingSortedCount() {
+        if (sortOrder == null) return 0;
+        ensurePendingTree();
+        return prefixPending(sortOrder.length);
+    }
+    
+    /**
+     * Offene Ziele ab Rang from in Anzeige-Reihenfolge, höchstens count Stück
+     * @return Ordinalzahlen, leer wenn keine Reihenfolge gesetzt ist
+     */
+    public synchronized int[] getRemainingSorted(int from, int count) {
+        int available = getRemainingSortedCount() - Math.max(0, from);
+        int[] page = new int[Math.max(0, Math.min(count, available))];
+        if (page.length == 0) return page;
+        
+        // Erstes Ziel per Select, der Rest liegt dahinter (gefundene überspringen).
+        // Gleiche Bedingung wie beim Baum-Aufbau: beanspruchte, aber noch nicht veröffentlichte zählen als offen
+        int position = selectPending(Math.max(0, from));
+        int i = 0;
+        for (; i < page.length && position < sortOrder.length; position++) {
+            int ordinal = sortOrder[position];
+            if (isOpen(ordinal)) {
+                page[i++] = ordinal;
+            }
+        }
+        return i == page.length ? page : Arrays.copyOf(page, i);
+    }
+    
+    private void ensurePendingTree() {
+        if (!pendingTreeDirty) return;
+        
+        // Linearer Aufbau: jeder Knoten gibt seine Summe an den Eltern-Knoten weiter
+        int n = sortOrder.length;
+        Arrays.fill(pendingTree, 0);
+        for (int i = 1; i <= n; i++) {
+            if (isOpen(sortOrder[i - 1])) {
+                pendingTree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= n) {
+                pendingTree[parent] += pendingTree[i];
+            }
+        }
+        pendingTreeDirty = false;
+    }
+    
+    /**
+     * Offen im Sinne des Baums: benötigt und Found-Bit noch nicht veröffentlicht (nur unter this)
+     */
+    private boolean isOpen(int ordinal) {
+        return isRequired(ordinal) && !isFound(ordinal);
+    }
+    
+    private int prefixPending(int positions) {
+        int sum = 0;
+        for (int i = positions; i > 0; i -= i & -i) {
+            sum += pendingTree[i];
+        }
+        return sum;
+    }
+    
+    /**
+     * Position des offenen Ziels mit Rang rank (0-basiert) in der Anzeige-Reihenfolge
+     */
+    private int selectPending(int rank) {
+        int position = 0;
+        int remaining = rank + 1;
+        for (int step = Integer.highestOneBit(sortOrder.length); step > 0; step >>>= 1) {
+            int next = position + step;
+            if (next <= sortOrder.length && pendingTree[next] < remaining) {
+                position = next;
+                remaining -= pendingTree[next];
+            }
+        }
+        return position;
+    }
+    
+    private long wordAt(int word, boolean remainingOnly) {
+        return remainingOnly ? required[word] & ~claimed.get(word) : required[word];
+    }
+}
@@ -0,0 +1,190 @@
+package de.b3ncloud.itemhunter.progress;
+
+import java.util.Arrays;
+
+/**
+ * Zeitleiste aller erledigten Ziele (Funde, Kills, Advancements, Skips) in Reihenfolge.
+ *
+ * Spaltenweise gespeichert: parallele primitive Arrays, die in Blöcken wachsen.
+ * Pro Event Art, Ziel (Ordinalzahl bzw. Katalog-Position), Spieler-ID, Challenge-Zeit
+ * und Uhrzeit - ein kompletter Lauf mit 1.500 Zielen braucht nur wenige KB.
+ * Geschrieben wird nur vom ProgressApplier bzw. Main-Thread, gelesen von Commands und Speichern.
+ */
+public class Timeline {
+
+    private static final int CHUNK = 256;
+    
+    // Markiert übersprungene Ziele in der Art-Spalte
+    public static final byte FLAG_SKIP = (byte) 0x80;
+    private static final byte KIND_MASK = 0x7F;
+    
+    private byte[] kinds = new byte[CHUNK];
+    private int[] targets = new int[CHUNK];
+    private int[] players = new int[CHUNK];
+    private long[] elapsedMillis = new long[CHUNK];
+    private long[] wallMillis = new long[CHUNK];
+    private int size = 0;
+    
+    // ============ SCHREIBEN ============
+    
+    /**
+     * Hängt ein Event an
+     * @param wallMillis System.currentTimeMillis() beim Fund, 0 wenn unbekannt (alte Dateien)
+     */
+    public synchronized void record(byte kind, int target, int playerId, long elapsedMillis, long wallMillis, boolean skipped) {
+        if (size == kinds.length) {
+            int capacity = size + CHUNK;
+            kinds = Arrays.copyOf(kinds, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            players = Arrays.copyOf(players, capacity);
+            this.elapsedMillis = Arrays.copyOf(this.elapsedMillis, capacity);
+            this.wallMillis = Arrays.copyOf(this.wallMillis, capacity);
+        }
+        
+        kinds[size] = (byte) (skipped ? kind | FLAG_SKIP : kind);
+        targets[size] = target;
+        players[size] = playerId;
+        this.elapsedMillis[size] = elapsedMillis;
+        this.wallMillis[size] = wallMillis;
+        size++;
+    }
+    
+    /**
+     * Leert die Zeitleiste (neuer Lauf oder Reset), behält aber den Speicher
+     */
+    public synchronized void clear() {
+        size = 0;
+    }
+    
+    // ============ EINZELNE EVENTS ============
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    public synchronized byte getKind(int index) {
+        return (byte) (kinds[index] & KIND_MASK);
+    }
+    
+    public synchronized boolean isSkipped(int index) {
+        return (kinds[index] & FLAG_SKIP) != 0;
+    }
+    
+    public synchronized int getTarget(int index) {
+        return targets[index];
+    }
+    
+    public synchronized int getPlayer(int index) {
+        return players[index];
+    }
+    
+    /**
+     * Split-Zeit: Challenge-Zeit beim Erledigen des Ziels
+     */
+    public synchronized long getElapsedMillis(int index) {
+        return elapsedMillis[index];
+    }
+    
+    public synchronized long getWallMillis(int index) {
+        return wallMillis[index];
+    }
+    
+    // ============ AUSWERTUNG ============
+    // Skips sind keine Funde: sie haben keine Split-Zeit, keinen Abstand, zählen nicht pro Stunde
+    // und sind auch nicht das "vorherige Event" für den Abstand des nächsten Funds.
+    
+    /**
+     * Position des Events für ein Ziel (auch Skips), oder -1
+     */
+    public synchronized int indexOf(byte kind, int target) {
+        for (int i = 0; i < size; i++) {
+            if (targets[i] == target && (kinds[i] & KIND_MASK) == kind) return i;
+        }
+        return -1;
+    }
+    
+    /**
+     * Anzahl echter Funde (ohne Skips)
+     */
+    public synchronized int getFindCount() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if ((kinds[i] & FLAG_SKIP) == 0) count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Split-Zeit eines Ziels, oder -1 wenn es noch nicht erledigt oder übersprungen ist
+     */
+    public synchronized long getSplitMillis(byte kind, int target) {
+        int index = indexOf(kind, target);
+        return index >= 0 && (kinds[index] & FLAG_SKIP) == 0 ? elapsedMillis[index] : -1;
+    }
+    
+    /**
+     * Abstand zum vorherigen Fund (beim ersten: seit Start), -1 für Skips
+     */
+    public synchronized long getGapMillis(int index) {
+        if ((kinds[index] & FLAG_SKIP) != 0) return -1;
+        
+        for (int i = index - 1; i >= 0; i--) {
+            if ((kinds[i] & FLAG_SKIP) == 0) return elapsedMillis[index] - elapsedMillis[i];
+        }
+        return elapsedMillis[index];
+    }
+    
+    /**
+     * Die count Funde mit dem größten Abstand zum vorherigen Fund, absteigend
+     */
+    public synchronized int[] getSlowest(int count) {
+        int[] result = new int[Math.max(0, Math.min(count, size))];
+        long[] resultGaps = new long[result.length];
+        int found = 0;
+        long previous = 0;
+        
+        // Einfügen in ein kleines sortiertes Array - count ist klein, size höchstens ein paar Tausend
+        for (int i = 0; i < size; i++) {
+            if ((kinds[i] & FLAG_SKIP) != 0) continue;
+            
+            long gap = elapsedMillis[i] - previous;
+            previous = elapsedMillis[i];
+            
+            int position = found;
+            while (position > 0 && resultGaps[position - 1] < gap) {
+                position--;
+            }
+            if (position >= result.length) continue;
+            
+            int end = Math.min(found, result.length - 1);
+            System.arraycopy(result, position, result, position + 1, end - position);
+            System.arraycopy(resultGaps, position, resultGaps, position + 1, end - position);
+            result[position] = i;
+            resultGaps[position] = gap;
+            found = Math.min(found + 1, result.length);
+        }
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+    
+    /**
+     * Anzahl Funde pro angefangener Stunde Challenge-Zeit (Index = Stunde, bis zum letzten Fund)
+     */
+    public synchronized int[] getFindsPerHour() {
+        int last = size - 1;
+        while (last >= 0 && (kinds[last] & FLAG_SKIP) != 0) {
+            last--;
+        }
+        if (last < 0) return new int[0];
+        
+        int[] hours = new int[(int) (elapsedMillis[last] / 3_600_000L) + 1];
+        for (int i = 0; i <= last; i++) {
+            if ((kinds[i] & FLAG_SKIP) != 0) continue;
+            
+            int hour = (int) (elapsedMillis[i] / 3_600_000L);
+            if (hour < hours.length) {
+                hours[hour]++;
+            }
+        }
+        return hours;
+    }
+}
@@ -0,0 +1,74 @@
+package de.b3ncloud.itemhunter.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Bukkit/Paper/Spigot: alles außer Async läuft auf dem Main-Thread
+ */
+public class BukkitSchedulerFacade implements SchedulerFacade {
+
+    private final Plugin plugin;
+    
+    public BukkitSchedulerFacade(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public void runGlobal(Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+    
+    @Override
+    public void runGlobalLater(Runnable task, long delayTicks) {
+        Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+    }
+    
+    @Override
+    public void runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+    }
+    
+    @Override
+    public void runAsync(Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+    
+    @Override
+    public boolean runForEntity(Entity entity, Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, task);
+        return true;
+    }
+    
+    @Override
+    public boolean runForEntityLater(Entity entity, Runnable task, long delayTicks) {
+        Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+        return true;
+    }
+    
+    @Override
+    public void executeForEntity(Entity entity, Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+    
+    @Override
+    public void runAtLocation(Location location, Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+    
+    @Override
+    public void runAtLocationLater(Location location, Runnable task, long delayTicks) {
+        Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+    }
+    
+    @Override
+    public boolean isFolia() {
+        return false;
+    }
+}
@@ -0,0 +1,214 @@
+package de.b3ncloud.itemhunter.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Consumer;
+
+/**
+ * Folia: Global-Region-, Async-, Region- und Entity-Scheduler über MethodHandles.
+ *
+ * Die Methoden werden einmal beim Aktivieren aufgelöst, Scheduler-Instanz und Plugin sind
+ * bereits eingebunden. Ein Aufruf ist danach ein invokeExact ohne Lookup, Boxing oder
+ * Zugriffsprüfung (statt Method.invoke pro Task). Folia-Klassen werden nur per Name
+ * referenziert, damit das Plugin weiter gegen die Spigot-API gebaut werden kann.
+ */
+public class FoliaSchedulerFacade implements SchedulerFacade {
+
+    private static final String SCHEDULER_PACKAGE = "io.papermc.paper.threadedregions.scheduler.";
+    
+    private final Plugin plugin;
+    
+    // (Consumer)Object, (Consumer, long)Object, (Consumer, long, long)Object
+    private final MethodHandle globalRun;
+    private final MethodHandle globalRunDelayed;
+    private final MethodHandle globalRunAtFixedRate;
+    
+    // (Consumer)Object
+    private final MethodHandle asyncRunNow;
+    
+    // (Entity, Consumer, Runnable)Object, (Entity, Consumer, Runnable, long)Object - null wenn das Entity weg ist
+    private final MethodHandle entityRun;
+    private final MethodHandle entityRunDelayed;
+    
+    // (Location, Consumer)Object, (Location, Consumer, long)Object
+    private final MethodHandle regionRun;
+    private final MethodHandle regionRunDelayed;
+    
+    // (Entity)boolean
+    private final MethodHandle ownedByCurrentRegion;
+    
+    public FoliaSchedulerFacade(Plugin plugin) throws ReflectiveOperationException {
+        this.plugin = plugin;
+        
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Class<?> taskClass = Class.forName(SCHEDULER_PACKAGE + "ScheduledTask");
+        Class<?> globalClass = Class.forName(SCHEDULER_PACKAGE + "GlobalRegionScheduler");
+        Class<?> asyncClass = Class.forName(SCHEDULER_PACKAGE + "AsyncScheduler");
+        Class<?> regionClass = Class.forName(SCHEDULER_PACKAGE + "RegionScheduler");
+        Class<?> entityClass = Class.forName(SCHEDULER_PACKAGE + "EntityScheduler");
+        
+        Object global = Bukkit.class.getMethod("getGlobalRegionScheduler").invoke(null);
+        Object async = Bukkit.class.getMethod("getAsyncScheduler").invoke(null);
+        Object region = Bukkit.class.getMethod("getRegionScheduler").invoke(null);
+        
+        globalRun = bind(lookup.findVirtual(globalClass, "run",
+                MethodType.methodType(taskClass, Plugin.class, Consumer.class)), global)
+                .asType(MethodType.methodType(Object.class, Consumer.class));
+        globalRunDelayed = bind(lookup.findVirtual(globalClass, "runDelayed",
+                MethodType.methodType(taskClass, Plugin.class, Consumer.class, long.class)), global)
+                .asType(MethodType.methodType(Object.class, Consumer.class, long.class));
+        globalRunAtFixedRate = bind(lookup.findVirtual(globalClass, "runAtFixedRate",
+                MethodType.methodType(taskClass, Plugin.class, Consumer.class, long.class, long.class)), global)
+                .asType(MethodType.methodType(Object.class, Consumer.class, long.class, long.class));
+        
+        asyncRunNow = bind(lookup.findVirtual(asyncClass, "runNow",
+                MethodType.methodType(taskClass, Plugin.class, Consumer.class)), async)
+                .asType(MethodType.methodType(Object.class, Consumer.class));
+        
+        regionRun = bind(lookup.findVirtual(regionClass, "run",
+                MethodType.methodType(taskClass, Plugin.class, Location.class, Consumer.class)), region)
+                .asType(MethodType.methodType(Object.class, Location.class, Consumer.class));
+        regionRunDelayed = bind(lookup.findVirtual(regionClass, "runDelayed",
+                MethodType.methodType(taskClass, Plugin.class, Location.class, Consumer.class, long.class)), region)
+                .asType(MethodType.methodType(Object.class, Location.class, Consumer.class, long.class));
+        
+        // entity.getScheduler() direkt vorschalten: ein Handle von Entity bis zum geplanten Task
+        MethodHandle getScheduler = lookup.findVirtual(Entity.class, "getScheduler", MethodType.methodType(entityClass));
+        entityRun = MethodHandles.filterArguments(MethodHandles.insertArguments(lookup.findVirtual(entityClass, "run",
+                        MethodType.methodType(taskClass, Plugin.class, Consumer.class, Runnable.class)), 1, plugin), 0, getScheduler)
+                .asType(MethodType.methodType(Object.class, Entity.class, Consumer.class, Runnable.class));
+        entityRunDelayed = MethodHandles.filterArguments(MethodHandles.insertArguments(lookup.findVirtual(entityClass, "runDelayed",
+                        MethodType.methodType(taskClass, Plugin.class, Consumer.class, Runnable.class, long.class)), 1, plugin), 0, getScheduler)
+                .asType(MethodType.methodType(Object.class, Entity.class, Consumer.class, Runnable.class, long.class));
+        
+        ownedByCurrentRegion = lookup.findStatic(Bukkit.class, "isOwnedByCurrentRegion",
+                MethodType.methodType(boolean.class, Entity.class));
+    }
+    
+    /**
+     * Bindet Scheduler-Instanz und Plugin an die ersten beiden Parameter
+     */
+    private MethodHandle bind(MethodHandle handle, Object scheduler) {
+        return MethodHandles.insertArguments(handle.bindTo(scheduler), 0, plugin);
+    }
+    
+    // ============ GLOBAL ============
+    
+    @Override
+    public void runGlobal(Runnable task) {
+        try {
+            Object ignored = (Object) globalRun.invokeExact(wrap(task));
+        } catch (Throwable e) {
+            failed("runGlobal", e);
+        }
+    }
+    
+    @Override
+    public void runGlobalLater(Runnable task, long delayTicks) {
+        try {
+            // Folia verlangt eine Verzögerung von mindestens einem Tick
+            Object ignored = (Object) globalRunDelayed.invokeExact(wrap(task), Math.max(1L, delayTicks));
+        } catch (Throwable e) {
+            failed("runGlobalLater", e);
+        }
+    }
+    
+    @Override
+    public void runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        try {
+            Object ignored = (Object) globalRunAtFixedRate.invokeExact(wrap(task), Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        } catch (Throwable e) {
+            failed("runGlobalTimer", e);
+        }
+    }
+    
+    // ============ ASYNC ============
+    
+    @Override
+    public void runAsync(Runnable task) {
+        try {
+            Object ignored = (Object) asyncRunNow.invokeExact(wrap(task));
+        } catch (Throwable e) {
+            failed("runAsync", e);
+        }
+    }
+    
+    // ============ ENTITY ============
+    
+    @Override
+    public boolean runForEntity(Entity entity, Runnable task) {
+        try {
+            return (Object) entityRun.invokeExact(entity, wrap(task), (Runnable) null) != null;
+        } catch (Throwable e) {
+            failed("runForEntity", e);
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean runForEntityLater(Entity entity, Runnable task, long delayTicks) {
+        try {
+            return (Object) entityRunDelayed.invokeExact(entity, wrap(task), (Runnable) null, Math.max(1L, delayTicks)) != null;
+        } catch (Throwable e) {
+            failed("runForEntityLater", e);
+            return false;
+        }
+    }
+    
+    @Override
+    public void executeForEntity(Entity entity, Runnable task) {
+        boolean owned;
+        try {
+            owned = (boolean) ownedByCurrentRegion.invokeExact(entity);
+        } catch (Throwable e) {
+            owned = false;
+        }
+        
+        if (owned) {
+            task.run();
+        } else {
+            runForEntity(entity, task);
+        }
+    }
+    
+    // ============ LOCATION ============
+    
+    @Override
+    public void runAtLocation(Location location, Runnable task) {
+        try {
+            Object ignored = (Object) regionRun.invokeExact(location, wrap(task));
+        } catch (Throwable e) {
+            failed("runAtLocation", e);
+        }
+    }
+    
+    @Override
+    public void runAtLocationLater(Location location, Runnable task, long delayTicks) {
+        try {
+            Object ignored = (Object) regionRunDelayed.invokeExact(location, wrap(task), Math.max(1L, delayTicks));
+        } catch (Throwable e) {
+            failed("runAtLocationLater", e);
+        }
+    }
+    
+    @Override
+    public boolean isFolia() {
+        return true;
+    }
+    
+    // ============ HILFSMETHODEN ============
+    
+    private static Consumer<Object> wrap(Runnable task) {
+        return scheduledTask -> task.run();
+    }
+    
+    private void failed(String method, Throwable e) {
+        plugin.getLogger().severe("Folia " + method + " fehlgeschlagen: " + e.getMessage());
+    }
+}
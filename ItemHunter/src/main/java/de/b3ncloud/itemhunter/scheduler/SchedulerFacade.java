@@ -0,0 +1,64 @@
+package de.b3ncloud.itemhunter.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Einheitlicher Zugriff auf den Scheduler für Bukkit/Paper/Spigot und Folia.
+ *
+ * Global: Spielzustand ohne Ortsbezug (Timer, Fortschritts-Queue, Speichern).
+ * Entity/Location: alles was einen Spieler oder Block anfasst - auf Folia auf dem Region-Thread,
+ * dem er gehört, sonst auf dem Main-Thread. Alle Zeiten in Ticks.
+ */
+public interface SchedulerFacade {
+
+    // ============ GLOBAL ============
+    
+    void runGlobal(Runnable task);
+    
+    void runGlobalLater(Runnable task, long delayTicks);
+    
+    void runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+    
+    // ============ ASYNC ============
+    
+    void runAsync(Runnable task);
+    
+    // ============ ENTITY ============
+    
+    /**
+     * Führt die Aufgabe im nächsten Tick auf dem Thread des Entities aus
+     * @return false wenn das Entity nicht mehr existiert
+     */
+    boolean runForEntity(Entity entity, Runnable task);
+    
+    boolean runForEntityLater(Entity entity, Runnable task, long delayTicks);
+    
+    /**
+     * Führt die Aufgabe sofort aus, wenn der aktuelle Thread das Entity besitzt, sonst wie runForEntity
+     */
+    void executeForEntity(Entity entity, Runnable task);
+    
+    // ============ LOCATION ============
+    
+    void runAtLocation(Location location, Runnable task);
+    
+    void runAtLocationLater(Location location, Runnable task, long delayTicks);
+    
+    boolean isFolia();
+    
+    /**
+     * Passende Implementierung, Folia-Methoden werden dabei einmalig gebunden
+     */
+    static SchedulerFacade create(Plugin plugin, boolean folia) {
+        if (folia) {
+            try {
+                return new FoliaSchedulerFacade(plugin);
+            } catch (ReflectiveOperationException e) {
+                plugin.getLogger().severe("Folia-Scheduler nicht verfügbar: " + e);
+            }
+        }
+        return new BukkitSchedulerFacade(plugin);
+    }
+}